@@ -0,0 +1,442 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe priority queue that many threads can add to and take from at once, for
+ * example as the work queue of a thread pool.
+ * <p>
+ * The queue is a relaxed multi-queue: its elements are spread over twice as many binary heaps
+ * as there are processors, each with its own lock. An element is added to a random heap that
+ * is not locked, and an element is taken from the better of two random heaps, judged by their
+ * least elements, which each heap publishes without its lock. No lock covers the whole queue
+ * and two threads rarely pick the same heap, so throughput grows with the number of cores.
+ * <p>
+ * In exchange the order is relaxed: <tt>poll</tt> and <tt>take</tt> return one of the least
+ * elements with high probability rather than always the least, and elements of equal priority
+ * are taken in no particular order. {@link #peek()} does return the least element of a queue
+ * that is not being modified. <tt>size</tt> is exact only when no operation is in progress,
+ * and the iterator traverses a snapshot of the elements.
+ */
+public class ConcurrentPriorityQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	/** 2 - the number of heaps per processor, which keeps the chance of two threads picking the same heap low */
+	private static final int HEAPS_PER_PROCESSOR = 2;
+
+	private final Heap<E>[] heaps;
+	private final Comparator<? super E> comparator;
+	private final int capacity;
+	private final AtomicInteger count = new AtomicInteger();
+
+	/** only taken by threads that must block, and by the threads that wake them */
+	private final ReentrantLock waitLock = new ReentrantLock();
+	private final Condition notEmpty = waitLock.newCondition();
+	private final Condition notFull = waitLock.newCondition();
+	private final AtomicInteger waitingTakers = new AtomicInteger();
+	private final AtomicInteger waitingPutters = new AtomicInteger();
+
+	/**
+	 * Creates an unbounded queue ordered by the natural ordering of its elements, which must be
+	 * {@link Comparable}.
+	 */
+	public ConcurrentPriorityQueue() {
+		this(Integer.MAX_VALUE, null);
+	}
+
+	/**
+	 * Creates an unbounded queue.
+	 *
+	 * @param comparator orders the elements, least first, or <tt>null</tt> for their natural ordering
+	 */
+	public ConcurrentPriorityQueue(Comparator<? super E> comparator) {
+		this(Integer.MAX_VALUE, comparator);
+	}
+
+	/**
+	 * @param capacity the maximum number of elements
+	 * @param comparator orders the elements, least first, or <tt>null</tt> for their natural ordering
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public ConcurrentPriorityQueue(int capacity, Comparator<? super E> comparator) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0");
+		}
+		this.capacity = capacity;
+		this.comparator = comparator;
+		this.heaps = new Heap[HEAPS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors()];
+		for (int i=0; i<heaps.length; i++) {
+			heaps[i] = new Heap<>(comparator);
+		}
+	}
+
+	/**
+	 * Adds the element unless the queue is full.
+	 *
+	 * @return <tt>true</tt> if the element was added
+	 */
+	@Override
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		if (!reserve()) {
+			return false;
+		}
+		try {
+			insert(e);
+		}
+		catch (RuntimeException ex) {
+			// an element that cannot be compared was not added
+			count.decrementAndGet();
+			throw ex;
+		}
+		signal(waitingTakers, notEmpty);
+		return true;
+	}
+
+	@Override
+	public void put(E e) throws InterruptedException {
+		if (offer(e)) {
+			return;
+		}
+		waitLock.lockInterruptibly();
+		waitingPutters.incrementAndGet();
+		try {
+			while (!offer(e)) {
+				notFull.await();
+			}
+		}
+		finally {
+			waitingPutters.decrementAndGet();
+			waitLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		if (offer(e)) {
+			return true;
+		}
+		long nanos = unit.toNanos(timeout);
+		waitLock.lockInterruptibly();
+		waitingPutters.incrementAndGet();
+		try {
+			while (!offer(e)) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			return true;
+		}
+		finally {
+			waitingPutters.decrementAndGet();
+			waitLock.unlock();
+		}
+	}
+
+	/**
+	 * @return one of the least elements, which is removed, or <tt>null</tt> if the queue is empty.
+	 */
+	@Override
+	public E poll() {
+		E e = removeFirst();
+		if (e != null) {
+			count.decrementAndGet();
+			signal(waitingPutters, notFull);
+		}
+		return e;
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		E e = poll();
+		if (e != null) {
+			return e;
+		}
+		waitLock.lockInterruptibly();
+		waitingTakers.incrementAndGet();
+		try {
+			while ((e = poll()) == null) {
+				notEmpty.await();
+			}
+			return e;
+		}
+		finally {
+			waitingTakers.decrementAndGet();
+			waitLock.unlock();
+		}
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		E e = poll();
+		if (e != null) {
+			return e;
+		}
+		long nanos = unit.toNanos(timeout);
+		waitLock.lockInterruptibly();
+		waitingTakers.incrementAndGet();
+		try {
+			while ((e = poll()) == null) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return e;
+		}
+		finally {
+			waitingTakers.decrementAndGet();
+			waitLock.unlock();
+		}
+	}
+
+	/**
+	 * @return the least element, which stays in the queue, or <tt>null</tt> if the queue is empty.
+	 */
+	@Override
+	public E peek() {
+		E least = null;
+		for (Heap<E> heap : heaps) {
+			E top = heap.top;
+			if (top != null && (least == null || compare(top, least) < 0)) {
+				least = top;
+			}
+		}
+		return least;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (o == null) {
+			return false;
+		}
+		for (Heap<E> heap : heaps) {
+			boolean isRemoved;
+			heap.lock.lock();
+			try {
+				isRemoved = heap.elements.remove(o);
+				heap.top = heap.elements.peek();
+			}
+			finally {
+				heap.lock.unlock();
+			}
+			if (isRemoved) {
+				count.decrementAndGet();
+				signal(waitingPutters, notFull);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return Math.max(0, count.get());
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return (capacity == Integer.MAX_VALUE) ? Integer.MAX_VALUE : Math.max(0, capacity - count.get());
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		if (c == this) {
+			throw new IllegalArgumentException("Cannot drain a queue into itself");
+		}
+		int drained = 0;
+		E e;
+		while (drained < maxElements && (e = poll()) != null) {
+			c.add(e);
+			drained++;
+		}
+		return drained;
+	}
+
+	/**
+	 * @return an iterator over a snapshot of the elements, in no particular order. Removing
+	 * 		   through the iterator removes an element equal to the current one.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> snapshot = new ArrayList<>();
+		for (Heap<E> heap : heaps) {
+			heap.lock.lock();
+			try {
+				snapshot.addAll(heap.elements);
+			}
+			finally {
+				heap.lock.unlock();
+			}
+		}
+		Iterator<E> iterator = snapshot.iterator();
+		return new Iterator<E>() {
+			private E current;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public E next() {
+				current = iterator.next();
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				if (current == null) {
+					throw new IllegalStateException();
+				}
+				ConcurrentPriorityQueue.this.remove(current);
+				current = null;
+			}
+		};
+	}
+
+	/**
+	 * Claims room for one element.
+	 *
+	 * @return <tt>false</tt> if the queue is full.
+	 */
+	private boolean reserve() {
+		while (true) {
+			int size = count.get();
+			if (size >= capacity) {
+				return false;
+			}
+			if (count.compareAndSet(size, size + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Adds the element to a random heap, trying other heaps while the chosen one is locked.
+	 */
+	private void insert(E e) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Heap<E> heap = heaps[random.nextInt(heaps.length)];
+		for (int attempt=1; attempt<heaps.length && !heap.lock.tryLock(); attempt++) {
+			heap = heaps[random.nextInt(heaps.length)];
+		}
+		if (!heap.lock.isHeldByCurrentThread()) {
+			heap.lock.lock();
+		}
+		try {
+			heap.elements.add(e);
+			heap.top = heap.elements.peek();
+		}
+		finally {
+			heap.lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the top of the better of two random heaps. When the sampled heaps are empty or
+	 * locked every heap is tried in turn, so an element is only missed if the queue is empty.
+	 */
+	private E removeFirst() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int attempt=0; attempt<heaps.length; attempt++) {
+			Heap<E> first = heaps[random.nextInt(heaps.length)];
+			Heap<E> second = heaps[random.nextInt(heaps.length)];
+			E firstTop = first.top;
+			E secondTop = second.top;
+			if (firstTop == null && secondTop == null) {
+				break;
+			}
+			Heap<E> heap = (secondTop == null || (firstTop != null && compare(firstTop, secondTop) <= 0))
+					? first : second;
+			if (heap.lock.tryLock()) {
+				try {
+					E e = heap.removeTop();
+					if (e != null) {
+						return e;
+					}
+				}
+				finally {
+					heap.lock.unlock();
+				}
+			}
+		}
+		int start = random.nextInt(heaps.length);
+		for (int i=0; i<heaps.length; i++) {
+			Heap<E> heap = heaps[(start + i) % heaps.length];
+			if (heap.top != null) {
+				heap.lock.lock();
+				try {
+					E e = heap.removeTop();
+					if (e != null) {
+						return e;
+					}
+				}
+				finally {
+					heap.lock.unlock();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Wakes one waiting thread, if any. Called without any heap lock held, since a waiting
+	 * thread holds the wait lock while it takes heap locks.
+	 */
+	private void signal(AtomicInteger waiting, Condition condition) {
+		if (waiting.get() > 0) {
+			waitLock.lock();
+			try {
+				condition.signal();
+			}
+			finally {
+				waitLock.unlock();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(E a, E b) {
+		return (comparator == null) ? ((Comparable<? super E>) a).compareTo(b) : comparator.compare(a, b);
+	}
+
+	/**
+	 * One of the heaps, which publishes its least element for threads choosing a heap.
+	 */
+	private static final class Heap<E> {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final java.util.PriorityQueue<E> elements;
+		/** the least element, or null if the heap is empty; written under the lock */
+		private volatile E top;
+
+		Heap(Comparator<? super E> comparator) {
+			this.elements = new java.util.PriorityQueue<>(comparator);
+		}
+
+		E removeTop() {
+			E e = elements.poll();
+			top = elements.peek();
+			return e;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded priority queue of primitive <tt>long</tt>s backed by a <tt>long[]</tt> binary heap,
+ * taking the least value first.
+ * <p>
+ * Unlike a {@link PriorityQueue} of <tt>Long</tt>s the values are neither boxed nor reached
+ * through a pointer, so <tt>add</tt> and <tt>take</tt> allocate nothing and each comparison
+ * reads the array directly. {@link #addAll(long[])} builds the heap bottom-up in O(n) instead
+ * of O(n log n) when the values are at least as many as those already queued, and
+ * {@link #replaceTop(long)} keeps the N greatest values of a stream with one sift per value.
+ *
+ * @see IntPriorityQueue
+ */
+public class LongPriorityQueue {
+
+	private final int maxSize;
+	private final long[] queue;
+	private int lastPosition;
+
+	/**
+	 * @param maxSize the maximum number of values
+	 */
+	public LongPriorityQueue(int maxSize) {
+		this.maxSize = maxSize;
+		this.queue = new long[maxSize];
+	}
+
+	public void add(long value) {
+		if (lastPosition == maxSize) {
+			throw new RuntimeException("queue is full");
+		}
+		siftUp(lastPosition, value);
+		lastPosition++;
+	}
+
+	/**
+	 * Adds the values. When they are at least as many as the values already queued they are
+	 * appended and the heap is restored from the last parent up to the root, which moves each
+	 * value at most the height of its subtree and so takes O(n) time for the whole queue.
+	 * Otherwise rebuilding would cost more than the batch is worth, and each value is sifted up
+	 * on its own. Nothing is added if the values do not all fit.
+	 */
+	public LongPriorityQueue addAll(long[] values) {
+		if (values.length > maxSize - lastPosition) {
+			throw new RuntimeException("queue is full");
+		}
+		if (values.length < lastPosition) {
+			for (long value : values) {
+				siftUp(lastPosition, value);
+				lastPosition++;
+			}
+			return this;
+		}
+		System.arraycopy(values, 0, queue, lastPosition, values.length);
+		lastPosition += values.length;
+		for (int i=(lastPosition >>> 1) - 1; i>=0; i--) {
+			siftDown(i, queue[i]);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the least value, which stays in the queue.
+	 */
+	public long peek() {
+		if (lastPosition < 1) {
+			throw new RuntimeException("nothing in queue");
+		}
+		return queue[0];
+	}
+
+	/**
+	 * @return the least value, which is removed.
+	 */
+	public long take() {
+		if (lastPosition < 1) {
+			throw new RuntimeException("nothing in queue");
+		}
+		long value = queue[0];
+		lastPosition--;
+		if (lastPosition > 0) {
+			siftDown(0, queue[lastPosition]);
+		}
+		return value;
+	}
+
+	/**
+	 * Removes the least value and adds the given one in a single sift, cheaper than a
+	 * <tt>take</tt> followed by an <tt>add</tt>. To keep the N greatest values of a stream, fill
+	 * a queue of N and then replace the top whenever a value is greater than {@link #peek()}.
+	 *
+	 * @return the least value before the replacement
+	 */
+	public long replaceTop(long value) {
+		if (lastPosition < 1) {
+			throw new RuntimeException("nothing in queue");
+		}
+		long top = queue[0];
+		siftDown(0, value);
+		return top;
+	}
+
+	public int size() {
+		return lastPosition;
+	}
+
+	public boolean isEmpty() {
+		return lastPosition == 0;
+	}
+
+	public void clear() {
+		lastPosition = 0;
+	}
+
+	/**
+	 * Moves the value up from the slot at the position until its parent is not greater.
+	 */
+	private void siftUp(int position, long value) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (value >= queue[parent]) {
+				break;
+			}
+			queue[position] = queue[parent];
+			position = parent;
+		}
+		queue[position] = value;
+	}
+
+	/**
+	 * Moves the value down from the slot at the position until neither child is less.
+	 */
+	private void siftDown(int position, long value) {
+		int half = lastPosition >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < lastPosition && queue[right] < queue[child]) {
+				child = right;
+			}
+			if (value <= queue[child]) {
+				break;
+			}
+			queue[position] = queue[child];
+			position = child;
+		}
+		queue[position] = value;
+	}
+
+	/**
+	 * @return the values in heap order, with the least first but the rest only partially ordered.
+	 */
+	@Override
+	public String toString() {
+		if (lastPosition < 1) {
+			return "queue is empty";
+		}
+		return Arrays.stream(queue, 0, lastPosition)
+				.mapToObj(Long::toString)
+				.collect(Collectors.joining(", "));
+	}
+}
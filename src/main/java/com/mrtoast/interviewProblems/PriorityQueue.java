@@ -1,64 +1,163 @@
-package com.mrtoast.interviewProblems;
-
-import java.util.Arrays;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
-public class PriorityQueue<T> {
-	
-	private final int maxSize;
-	private T[] queue;
-	private int lastPosition;
-	
-	public PriorityQueue(int maxSize, Function<Integer, T[]> arrayInitializer) {
-		this.maxSize = maxSize;
-		this.queue = arrayInitializer.apply(maxSize);
-	}
-	
-	public void add(T value) {
-		if (lastPosition == maxSize) {
-			throw new RuntimeException("queue is full");
-		}
-		queue[lastPosition] = value;
-		lastPosition++;
-	}
-	
-	public PriorityQueue<T> addAll(PriorityQueue<T> other) {
-		Arrays.stream(other.queue).forEach(t -> add(t));
-		return this;
-	}
-	
-	public T peek() {
-		if (lastPosition < 1) {
-			throw new RuntimeException("nothing in queue");
-		}
-		return queue[0];
-	}
-	
-	public T take() {
-		if (lastPosition < 1) {
-			throw new RuntimeException("nothing in queue");
-		}
-		
-		T value = queue[0];
-		
-		for (int i=0; i<lastPosition; i++) {
-			queue[i] = queue[i+1];
-		}
-		lastPosition--;
-		
-		return value;
-	}
-	
-	@Override
-	public String toString() {
-		if (lastPosition < 1) {
-			return "queue is empty";
-		}
-		return Arrays.stream(queue)
-				.limit(lastPosition)
-	//			.filter(x -> x != null)
-				.map(x -> x.toString())
-				.collect(Collectors.joining(", "));
-	}
-}
+package com.mrtoast.interviewProblems;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded priority queue backed by an array binary heap.
+ * <p>
+ * The element at index <tt>i</tt> is never greater than its children at <tt>2i+1</tt> and
+ * <tt>2i+2</tt>, so the least element by the comparator is always at the root: <tt>peek</tt>
+ * is O(1), while <tt>add</tt> and <tt>take</tt> move one element along a single root-to-leaf
+ * path in O(log n). Elements of equal priority are taken in no particular order.
+ */
+public class PriorityQueue<T> {
+
+	private final int maxSize;
+	private final Comparator<? super T> comparator;
+	private T[] queue;
+	private int lastPosition;
+
+	/**
+	 * Creates a queue ordered by the natural ordering of its elements, which must be
+	 * {@link Comparable}.
+	 */
+	public PriorityQueue(int maxSize, Function<Integer, T[]> arrayInitializer) {
+		this(maxSize, arrayInitializer, null);
+	}
+
+	/**
+	 * @param maxSize the maximum number of elements
+	 * @param arrayInitializer creates the backing array of the given length
+	 * @param comparator orders the elements, least first, or <tt>null</tt> for their natural ordering
+	 */
+	public PriorityQueue(int maxSize, Function<Integer, T[]> arrayInitializer, Comparator<? super T> comparator) {
+		this.maxSize = maxSize;
+		this.queue = arrayInitializer.apply(maxSize);
+		this.comparator = comparator;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	public void add(T value) {
+		if (value == null) {
+			throw new IllegalArgumentException("value is null");
+		}
+		if (lastPosition == maxSize) {
+			throw new RuntimeException("queue is full");
+		}
+		siftUp(lastPosition, value);
+		lastPosition++;
+	}
+
+	/**
+	 * Adds the elements of the other queue, which is left unchanged. Nothing is added if
+	 * they do not all fit.
+	 */
+	public PriorityQueue<T> addAll(PriorityQueue<T> other) {
+		if (lastPosition + other.lastPosition > maxSize) {
+			throw new RuntimeException("queue is full");
+		}
+		// only the first lastPosition slots hold elements, the rest of the array is empty
+		for (int i=0; i<other.lastPosition; i++) {
+			add(other.queue[i]);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the least element, which stays in the queue.
+	 */
+	public T peek() {
+		if (lastPosition < 1) {
+			throw new RuntimeException("nothing in queue");
+		}
+		return queue[0];
+	}
+
+	/**
+	 * Removes the least element, replacing it with the last one and sifting that down.
+	 *
+	 * @return the least element
+	 */
+	public T take() {
+		if (lastPosition < 1) {
+			throw new RuntimeException("nothing in queue");
+		}
+
+		T value = queue[0];
+		lastPosition--;
+		T last = queue[lastPosition];
+		queue[lastPosition] = null;
+		if (lastPosition > 0) {
+			siftDown(0, last);
+		}
+
+		return value;
+	}
+
+	public int size() {
+		return lastPosition;
+	}
+
+	public boolean isEmpty() {
+		return lastPosition == 0;
+	}
+
+	/**
+	 * Moves the value up from the empty slot at the position until its parent is not greater.
+	 */
+	private void siftUp(int position, T value) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (compare(value, queue[parent]) >= 0) {
+				break;
+			}
+			queue[position] = queue[parent];
+			position = parent;
+		}
+		queue[position] = value;
+	}
+
+	/**
+	 * Moves the value down from the empty slot at the position until neither child is less.
+	 */
+	private void siftDown(int position, T value) {
+		int half = lastPosition >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < lastPosition && compare(queue[right], queue[child]) < 0) {
+				child = right;
+			}
+			if (compare(value, queue[child]) <= 0) {
+				break;
+			}
+			queue[position] = queue[child];
+			position = child;
+		}
+		queue[position] = value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(T a, T b) {
+		return (comparator == null) ? ((Comparable<? super T>) a).compareTo(b) : comparator.compare(a, b);
+	}
+
+	/**
+	 * @return the elements in heap order, with the least first but the rest only partially ordered.
+	 */
+	@Override
+	public String toString() {
+		if (lastPosition < 1) {
+			return "queue is empty";
+		}
+		return Arrays.stream(queue)
+				.limit(lastPosition)
+				.map(x -> x.toString())
+				.collect(Collectors.joining(", "));
+	}
+}
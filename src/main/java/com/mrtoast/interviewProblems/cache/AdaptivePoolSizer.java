@@ -0,0 +1,204 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjusts the core and maximum sizes of a {@link ThreadPoolExecutorImpl} at runtime by hill
+ * climbing.
+ * <p>
+ * Each {@link #run()} is one step of the controller. It compares the executor's
+ * {@link ExecutorStats} with those of the previous step and moves the core size by at most
+ * one thread, judged by the pool's own queue and threads over the interval between them:
+ * <ul>
+ * <li>when tasks waited in the queue longer than the target on average, the queue grew or
+ * tasks were rejected, a thread is added, unless the previous addition lowered the
+ * throughput, in which case the climb has passed the optimum and a thread is removed
+ * instead;</li>
+ * <li>when the queue is empty and at least one thread was idle over the whole interval, a
+ * thread is removed.</li>
+ * </ul>
+ * The system load average only caps the climb: while the processors are saturated no thread
+ * is added, since more threads cannot help, but none is removed on that account either, as
+ * the load may come from other processes.
+ * <p>
+ * The core size stays between the configured limits, so the pool keeps warm threads across
+ * bursts instead of creating and destroying them. The maximum size follows at twice the core
+ * size, within the upper limit, leaving room for the threads a burst that fills the queue
+ * between two steps needs without letting a lightly loaded pool spike to the upper limit.
+ * Steps should be scheduled a few hundred milliseconds or more apart so each step sees enough
+ * tasks, see {@link #start(ScheduledExecutorService, long, TimeUnit)}, and stop once the
+ * executor has been shut down.
+ * {@link ThreadPoolExecutorImpl#newAdaptive(ScheduledExecutorService)} creates an executor
+ * that is sized this way.
+ */
+public class AdaptivePoolSizer implements Runnable {
+
+	/** 1.0 - the default load average per processor above which the processors are saturated */
+	static final double DEFAULT_MAX_LOAD = 1.0;
+
+	/** 10 ms - the default mean time tasks may wait in the queue before threads are added */
+	static final long DEFAULT_TARGET_QUEUE_WAIT = 10;
+
+	/** 500 ms - the default time between two steps */
+	static final long DEFAULT_PERIOD = 500;
+
+	/** 5% - the change in throughput below which two steps are considered equally good */
+	private static final double THROUGHPUT_TOLERANCE = 0.05;
+
+	private final ThreadPoolExecutorImpl executor;
+	private final int minPoolSize;
+	private final int maxPoolSize;
+	private final long targetQueueWaitNanos;
+	private final double maxLoad;
+	private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+
+	/** the scheduled steps, cancelled once the executor has been shut down */
+	private ScheduledFuture<?> steps;
+
+	private ExecutorStats previousStats;
+	private double previousThroughput;
+	private int previousStep;
+
+	/**
+	 * @param executor the executor to size
+	 * @param minPoolSize the smallest core size, at least 1 so a warm thread is always kept
+	 * @param maxPoolSize the largest core and maximum size
+	 * @param targetQueueWait the mean time tasks may wait in the queue before threads are added
+	 * @param unit the unit of the target queue wait
+	 * @throws IllegalArgumentException if the minimum size is not positive or is greater than
+	 * 		   the maximum size, or the target queue wait is negative
+	 */
+	public AdaptivePoolSizer(ThreadPoolExecutorImpl executor, int minPoolSize, int maxPoolSize,
+			long targetQueueWait, TimeUnit unit) {
+		this(executor, minPoolSize, maxPoolSize, targetQueueWait, unit, DEFAULT_MAX_LOAD);
+	}
+
+	/**
+	 * @param maxLoad the system load average per processor above which no threads are added,
+	 * 		  see {@link OperatingSystemMXBean#getSystemLoadAverage()}
+	 * @see #AdaptivePoolSizer(ThreadPoolExecutorImpl, int, int, long, TimeUnit)
+	 */
+	public AdaptivePoolSizer(ThreadPoolExecutorImpl executor, int minPoolSize, int maxPoolSize,
+			long targetQueueWait, TimeUnit unit, double maxLoad) {
+		if (minPoolSize <= 0 || minPoolSize > maxPoolSize) {
+			throw new IllegalArgumentException("Pool sizes must satisfy 0 < minPoolSize <= maxPoolSize");
+		}
+		if (targetQueueWait < 0) {
+			throw new IllegalArgumentException("Target queue wait is negative");
+		}
+		this.executor = executor;
+		this.minPoolSize = minPoolSize;
+		this.maxPoolSize = maxPoolSize;
+		this.targetQueueWaitNanos = unit.toNanos(targetQueueWait);
+		this.maxLoad = maxLoad;
+		resize(clamp(executor.getCorePoolSize()));
+	}
+
+	/**
+	 * Runs one step of the controller every period on the scheduler, until the executor has
+	 * been shut down.
+	 *
+	 * @return the future of the scheduled steps, which can be cancelled to stop sizing
+	 */
+	public synchronized ScheduledFuture<?> start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+		steps = scheduler.scheduleAtFixedRate(this, period, period, unit);
+		return steps;
+	}
+
+	/**
+	 * Measures the executor since the previous step and moves its core size by at most one.
+	 */
+	@Override
+	public synchronized void run() {
+		if (executor.isShutdown()) {
+			if (steps != null) {
+				steps.cancel(false);
+			}
+			return;
+		}
+		ExecutorStats stats = executor.getStats();
+		if (previousStats == null) {
+			previousStats = stats;
+			return;
+		}
+		double throughput = stats.getThroughput(previousStats);
+		int poolSize = executor.getCorePoolSize();
+		int step = step(stats, throughput, poolSize);
+		int newPoolSize = clamp(poolSize + step);
+		resize(newPoolSize);
+
+		previousStats = stats;
+		previousThroughput = throughput;
+		previousStep = newPoolSize - poolSize;
+	}
+
+	private int step(ExecutorStats stats, double throughput, int poolSize) {
+		boolean isBacklogged = getMeanQueueWait(stats) > targetQueueWaitNanos
+				|| stats.getQueueSize() > previousStats.getQueueSize()
+				|| stats.getRejectedCount() > previousStats.getRejectedCount();
+		if (isBacklogged) {
+			boolean isWorse = throughput < previousThroughput * (1 - THROUGHPUT_TOLERANCE);
+			if (previousStep > 0 && isWorse) {
+				return -1;
+			}
+			return isSaturated() ? 0 : 1;
+		}
+		boolean isIdle = getBusyThreads(stats, poolSize) <= poolSize - 1;
+		return (stats.getQueueSize() == 0 && isIdle) ? -1 : 0;
+	}
+
+	/**
+	 * @return the mean number of threads executing tasks since the previous step, measured by
+	 * 		   the execution time of the tasks that completed, but at least the number executing
+	 * 		   now and at most the pool size.
+	 */
+	private double getBusyThreads(ExecutorStats stats, int poolSize) {
+		long elapsed = stats.getTime() - previousStats.getTime();
+		long busyTime = stats.getExecutionTime().getTotal() - previousStats.getExecutionTime().getTotal();
+		double busyThreads = (elapsed <= 0) ? 0 : (double) busyTime / elapsed;
+		return Math.min(poolSize, Math.max(stats.getActiveCount(), busyThreads));
+	}
+
+	/**
+	 * @return the mean queue wait in nanoseconds of the tasks started since the previous step.
+	 */
+	private double getMeanQueueWait(ExecutorStats stats) {
+		long count = stats.getQueueWait().getCount() - previousStats.getQueueWait().getCount();
+		long total = stats.getQueueWait().getTotal() - previousStats.getQueueWait().getTotal();
+		// tasks still queued have waited too, which matters when no task started at all
+		return (count == 0) ? ((stats.getQueueSize() > 0) ? Double.MAX_VALUE : 0) : (double) total / count;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the system load per processor exceeds the maximum. Platforms
+	 * 		   without a load average are never considered saturated.
+	 */
+	private boolean isSaturated() {
+		double loadAverage = operatingSystem.getSystemLoadAverage();
+		return loadAverage >= 0 && loadAverage / operatingSystem.getAvailableProcessors() > maxLoad;
+	}
+
+	private int clamp(int poolSize) {
+		return Math.max(minPoolSize, Math.min(maxPoolSize, poolSize));
+	}
+
+	/**
+	 * Sets the core size and the maximum size that follows it. The sizes are set in the order
+	 * that keeps the core size at most the maximum size at all times.
+	 */
+	private void resize(int poolSize) {
+		int maximumPoolSize = (int) Math.min(maxPoolSize, 2L * poolSize);
+		if (executor.getMaximumPoolSize() < maximumPoolSize) {
+			executor.setMaximumPoolSize(maximumPoolSize);
+			executor.setCorePoolSize(poolSize);
+		}
+		else {
+			executor.setCorePoolSize(poolSize);
+			executor.setMaximumPoolSize(maximumPoolSize);
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * The policy a {@link Cache} uses to decide which entries to keep once it is full.
+ */
+public enum AdmissionPolicy {
+	/**
+	 * Every new entry is admitted and the eldest entry in the cache's ordering is evicted,
+	 * which makes an access-order cache a plain LRU.
+	 */
+	NONE,
+	
+	/**
+	 * New entries enter a small LRU window and must then out-score the main region's
+	 * eviction victim in a frequency sketch to be retained. The main region is a segmented
+	 * LRU, so entries that are read again are protected from one-off scans.
+	 * 
+	 * @see WindowTinyLfuPolicy
+	 */
+	WINDOW_TINY_LFU
+}
@@ -1,77 +1,576 @@
-package com.mrtoast.interviewProblems.cache;
-
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-
-public class Cache<K, V> extends LinkedHashMap<K, V> {
-	
-	private static final long serialVersionUID = 1L;
-
-	static final int DEFAULT_MAX_CAPACITY = 1024;
-	static final int DEFAULT_INITIAL_CAPACITY = 16;
-	static final float DEFAULT_LOAD_FACTOR = 0.75F;
-	/** This value must be set TRUE to create an LRU Cache */
-	static final boolean DEFAULT_ACCESS_ORDER = true;
-
-	private int maxCapacity;
-	
-	public Cache() {
-		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_ACCESS_ORDER, DEFAULT_MAX_CAPACITY);
-	}
-
-	/**
-	 * Constructs an empty <tt>Cache</tt> instance with the
-     * specified initial and maximum capacity, load factor and ordering mode.
-     *
-     * @param  initialCapacity the initial capacity
-     * @param  loadFactor      the load factor
-     * @param  accessOrder     the ordering mode - <tt>true</tt> for
-     *         access-order, <tt>false</tt> for insertion-order
-     * @param  maxCapacity the maximum cache capacity
-     * @throws IllegalArgumentException if the initial capacity is negative
-     *         or the load factor is non-positive or maxCapcity is less than initialCapacity.
-	 */
-	public Cache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity) {
-		super(initialCapacity, loadFactor, accessOrder);
-		validateMaxCapacity(initialCapacity, maxCapacity);
-	}
-
-	private final void validateMaxCapacity(int initialCapacity, int maxCapacity) {
-		if (maxCapacity < initialCapacity) {
-			throw new IllegalArgumentException("Specified maximum capacity is less than its initial capacity");
-		}
-		this.maxCapacity = maxCapacity;
-	}
-
-	@Override
-	protected boolean removeEldestEntry(java.util.Map.Entry<K, V> eldest) {
-		return (size() > maxCapacity);
-	}
-	
-	/**
-	 * @return a synchronized implementation of the <tt>Cache</tt>.
-	 */
-	public static <K, V> Map<K, V> synchornizedCache() {
-		return Collections.synchronizedMap(new Cache<K, V>(
-				DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_ACCESS_ORDER, DEFAULT_MAX_CAPACITY));
-	}
-	
-	/**
-	 * Returns a synchronized implementation of the <tt>Cache</tt> with the
-     * specified initial and maximum capacity, load factor and ordering mode.
-     *
-     * @param  initialCapacity the initial capacity
-     * @param  loadFactor      the load factor
-     * @param  accessOrder     the ordering mode - <tt>true</tt> for access-order, 
-     * 											   <tt>false</tt> for insertion-order
-     * @param  maxCapacity the maximum cache capacity
-     * @throws IllegalArgumentException if the initial capacity is negative
-     *         or the load factor is non-positive or maxCapcity is less than initialCapacity.
-	 */
-	public static <K, V> Map<K, V> synchornizedCache(int initialCapacity, float loadFactor, 
-			boolean isAccessOrder, int maxCapacity) {
-		return Collections.synchronizedMap(new Cache<K, V>(initialCapacity, loadFactor, isAccessOrder, maxCapacity));
-	}
-}
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+public class Cache<K, V> extends LinkedHashMap<K, V> {
+	
+	private static final long serialVersionUID = 1L;
+
+	static final int DEFAULT_MAX_CAPACITY = 1024;
+	static final int DEFAULT_INITIAL_CAPACITY = 16;
+	static final float DEFAULT_LOAD_FACTOR = 0.75F;
+	/** This value must be set TRUE to create an LRU Cache */
+	static final boolean DEFAULT_ACCESS_ORDER = true;
+
+	private int maxCapacity;
+	
+	/** the W-TinyLFU bookkeeping, or null if every new entry is admitted */
+	private final transient WindowTinyLfuPolicy<K> tinyLfu;
+	
+	/** weighs each entry against maxWeight, or null if only the entry count is bounded */
+	private final transient Weigher<? super K, ? super V> weigher;
+	private final long maxWeight;
+	private transient long weightedSize;
+	/** the total weight of all the segments of a {@link ConcurrentCache}, or null */
+	private transient AtomicLong sharedWeightedSize;
+	
+	private transient StatsRecorder statsRecorder = StatsRecorder.DISABLED;
+	
+	/** delivers the removals to a listener, or null if there is none */
+	private transient RemovalNotifier<K, V> removalNotifier;
+	
+	public Cache() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_ACCESS_ORDER, DEFAULT_MAX_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty <tt>Cache</tt> instance with the
+     * specified initial and maximum capacity, load factor and ordering mode.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  accessOrder     the ordering mode - <tt>true</tt> for
+     *         access-order, <tt>false</tt> for insertion-order
+     * @param  maxCapacity the maximum cache capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is non-positive or maxCapcity is less than initialCapacity.
+	 */
+	public Cache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity) {
+		this(initialCapacity, loadFactor, accessOrder, maxCapacity, AdmissionPolicy.NONE);
+	}
+
+	/**
+	 * Constructs an empty <tt>Cache</tt> instance with the
+     * specified initial and maximum capacity, load factor, ordering mode and admission policy.
+     * <p>
+     * With {@link AdmissionPolicy#WINDOW_TINY_LFU} the policy chooses which entry to evict and
+     * the ordering mode only affects iteration order. Entries removed through the views
+     * (<tt>keySet()</tt>, <tt>entrySet()</tt>, <tt>values()</tt>) are forgotten by the policy
+     * lazily, when it next selects them for eviction.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  accessOrder     the ordering mode - <tt>true</tt> for
+     *         access-order, <tt>false</tt> for insertion-order
+     * @param  maxCapacity     the maximum cache capacity
+     * @param  admissionPolicy decides which entries to keep once the cache is full
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is non-positive or maxCapcity is less than initialCapacity.
+	 */
+	public Cache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity,
+			AdmissionPolicy admissionPolicy) {
+		this(initialCapacity, loadFactor, accessOrder, maxCapacity, admissionPolicy, Long.MAX_VALUE, null);
+	}
+
+	/**
+	 * Constructs an empty <tt>Cache</tt> instance bounded by both its entry count and the
+	 * total weight of its entries. After each insertion entries are evicted until both
+	 * bounds are met, so an entry heavier than <tt>maxWeight</tt> is evicted immediately.
+	 * <p>
+	 * The weigher is applied when an entry is added and again when it is removed or replaced,
+	 * so it must return the same weight for the same key and value. Values changed through the
+	 * views (<tt>entrySet()</tt>) are not reweighed.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  accessOrder     the ordering mode - <tt>true</tt> for
+     *         access-order, <tt>false</tt> for insertion-order
+     * @param  maxCapacity     the maximum cache capacity
+     * @param  admissionPolicy decides which entries to keep once the cache is full
+     * @param  maxWeight       the maximum total weight of the entries
+     * @param  weigher         weighs each entry, for example by its size in bytes, or
+     *         <tt>null</tt> to bound the cache by its entry count only
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is non-positive or maxCapcity is less than initialCapacity
+     *         or maxWeight is negative.
+	 */
+	public Cache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity,
+			AdmissionPolicy admissionPolicy, long maxWeight, Weigher<? super K, ? super V> weigher) {
+		super(initialCapacity, loadFactor, accessOrder);
+		validateMaxCapacity(initialCapacity, maxCapacity);
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("Specified maximum weight is negative");
+		}
+		this.tinyLfu = (admissionPolicy == AdmissionPolicy.WINDOW_TINY_LFU)
+				? new WindowTinyLfuPolicy<K>(maxCapacity) : null;
+		this.weigher = weigher;
+		this.maxWeight = (weigher == null) ? Long.MAX_VALUE : maxWeight;
+	}
+
+	private final void validateMaxCapacity(int initialCapacity, int maxCapacity) {
+		if (maxCapacity < initialCapacity) {
+			throw new IllegalArgumentException("Specified maximum capacity is less than its initial capacity");
+		}
+		this.maxCapacity = maxCapacity;
+	}
+
+	@Override
+	protected boolean removeEldestEntry(java.util.Map.Entry<K, V> eldest) {
+		// tracked caches evict their own victims after each insertion
+		if (!isTracked() && (size() > maxCapacity)) {
+			statsRecorder.recordEviction();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return <tt>true</tt> if insertions and removals must be seen by the admission policy,
+	 * 		   the weigher or the removal listener, in which case every mutation is routed
+	 * 		   through put and remove.
+	 */
+	private boolean isTracked() {
+		return (tinyLfu != null) || (weigher != null) || (removalNotifier != null);
+	}
+
+	@Override
+	public V get(Object key) {
+		V value = getAndRecordAccess(key);
+		recordLookup(value);
+		return value;
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		V value = super.getOrDefault(key, defaultValue);
+		recordLookup((value == defaultValue) ? null : value);
+		if (tinyLfu != null) {
+			tinyLfu.recordAccess(key);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads the value for the key as an access seen by the admission policy, without
+	 * recording a hit or miss. Used by the mutators of tracked caches.
+	 */
+	private V getAndRecordAccess(Object key) {
+		V value = super.get(key);
+		if (tinyLfu != null) {
+			tinyLfu.recordAccess(key);
+		}
+		return value;
+	}
+
+	private void recordLookup(V value) {
+		if (value == null) {
+			statsRecorder.recordMisses(1);
+		}
+		else {
+			statsRecorder.recordHits(1);
+		}
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (!isTracked()) {
+			return super.put(key, value);
+		}
+		int size = size();
+		V previous = super.put(key, value);
+		boolean isInserted = size() > size;
+		if (weigher != null) {
+			addWeight(weigh(key, value) - (isInserted ? 0 : weigh(key, previous)));
+		}
+		if (tinyLfu != null) {
+			if (isInserted) {
+				tinyLfu.recordInsertion(key);
+			}
+			else {
+				tinyLfu.recordAccess(key);
+			}
+		}
+		if (!isInserted && previous != value) {
+			notifyRemoval(key, previous, RemovalCause.REPLACED);
+		}
+		evictEntries();
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		if (!isTracked()) {
+			super.putAll(map);
+			return;
+		}
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		if (!isTracked()) {
+			return super.putIfAbsent(key, value);
+		}
+		V current = getAndRecordAccess(key);
+		return (current == null) ? put(key, value) : current;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		if (!isTracked()) {
+			return super.computeIfAbsent(key, mappingFunction);
+		}
+		V current = getAndRecordAccess(key);
+		if (current == null) {
+			current = mappingFunction.apply(key);
+			if (current != null) {
+				put(key, current);
+			}
+		}
+		return current;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (!isTracked()) {
+			return super.computeIfPresent(key, remappingFunction);
+		}
+		V current = getAndRecordAccess(key);
+		if (current == null) {
+			return null;
+		}
+		return putOrRemove(key, remappingFunction.apply(key, current));
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (!isTracked()) {
+			return super.compute(key, remappingFunction);
+		}
+		return putOrRemove(key, remappingFunction.apply(key, getAndRecordAccess(key)));
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if (!isTracked()) {
+			return super.merge(key, value, remappingFunction);
+		}
+		V current = getAndRecordAccess(key);
+		return putOrRemove(key, (current == null) ? value : remappingFunction.apply(current, value));
+	}
+
+	private V putOrRemove(K key, V value) {
+		if (value == null) {
+			remove(key);
+		}
+		else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		if (!isTracked()) {
+			return super.replace(key, value);
+		}
+		return containsKey(key) ? put(key, value) : null;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		if (!isTracked()) {
+			return super.replace(key, oldValue, newValue);
+		}
+		if (containsKey(key) && Objects.equals(getAndRecordAccess(key), oldValue)) {
+			put(key, newValue);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		if (weigher == null && removalNotifier == null) {
+			super.replaceAll(function);
+			return;
+		}
+		for (Map.Entry<K, V> entry : entrySet()) {
+			V value = function.apply(entry.getKey(), entry.getValue());
+			if (weigher != null) {
+				addWeight(weigh(entry.getKey(), value) - weigh(entry.getKey(), entry.getValue()));
+			}
+			V previous = entry.setValue(value);
+			if (previous != value) {
+				notifyRemoval(entry.getKey(), previous, RemovalCause.REPLACED);
+			}
+		}
+		evictEntries();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if (!isTracked()) {
+			return super.remove(key);
+		}
+		int size = size();
+		V value = removeEntry(key);
+		if (size() < size) {
+			notifyRemoval((K) key, value, RemovalCause.EXPLICIT);
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object key, Object value) {
+		boolean isRemoved = super.remove(key, value);
+		if (isRemoved) {
+			if (tinyLfu != null) {
+				tinyLfu.recordRemoval(key);
+			}
+			if (weigher != null) {
+				addWeight(-weigh((K) key, (V) value));
+			}
+			notifyRemoval((K) key, (V) value, RemovalCause.EXPLICIT);
+		}
+		return isRemoved;
+	}
+
+	@Override
+	public void clear() {
+		if (removalNotifier != null) {
+			for (Map.Entry<K, V> entry : entrySet()) {
+				notifyRemoval(entry.getKey(), entry.getValue(), RemovalCause.EXPLICIT);
+			}
+		}
+		super.clear();
+		addWeight(-weightedSize);
+		if (tinyLfu != null) {
+			tinyLfu.clear();
+		}
+	}
+
+	/**
+	 * Removes the entry for the key and forgets its weight and policy bookkeeping.
+	 */
+	@SuppressWarnings("unchecked")
+	private V removeEntry(Object key) {
+		if (tinyLfu != null) {
+			tinyLfu.recordRemoval(key);
+		}
+		int size = size();
+		V value = super.remove(key);
+		if (weigher != null && size() < size) {
+			addWeight(-weigh((K) key, value));
+		}
+		return value;
+	}
+
+	/**
+	 * Evicts entries until the cache is within both its maximum capacity and maximum weight.
+	 * The admission policy chooses the victims when there is one, otherwise the eldest
+	 * entry in the cache's ordering is evicted.
+	 */
+	private void evictEntries() {
+		while (size() > maxCapacity || weightedSize > maxWeight) {
+			if (!evictEntry()) {
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Evicts the entry chosen by the admission policy, or the eldest entry if there is no
+	 * policy. Used by {@link ConcurrentCache} to bound the weight of all its segments.
+	 * 
+	 * @return <tt>false</tt> if the cache was empty
+	 */
+	boolean evictEntry() {
+		if (isEmpty()) {
+			addWeight(-weightedSize);
+			return false;
+		}
+		K victim = (tinyLfu == null) ? null : tinyLfu.evict();
+		if (victim == null || !containsKey(victim)) {
+			// no policy, or the policy has lost track of the remaining entries
+			victim = keySet().iterator().next();
+		}
+		V value = removeEntry(victim);
+		statsRecorder.recordEviction();
+		notifyRemoval(victim, value, RemovalCause.SIZE);
+		return true;
+	}
+	
+	private void addWeight(long delta) {
+		weightedSize += delta;
+		if (sharedWeightedSize != null) {
+			sharedWeightedSize.addAndGet(delta);
+		}
+	}
+	
+	/**
+	 * Adds every change of this cache's weight to the given total as well.
+	 */
+	void setSharedWeightedSize(AtomicLong sharedWeightedSize) {
+		this.sharedWeightedSize = sharedWeightedSize;
+	}
+
+	private long weigh(K key, V value) {
+		int weight = weigher.weigh(key, value);
+		if (weight < 0) {
+			throw new IllegalArgumentException("Weigher returned a negative weight: " + weight);
+		}
+		return weight;
+	}
+
+	/**
+	 * @return the total weight of the entries, or 0 if the cache has no weigher.
+	 */
+	public long getWeightedSize() {
+		return weightedSize;
+	}
+
+	/**
+	 * @return the maximum total weight of the entries, or <tt>Long.MAX_VALUE</tt> if the cache
+	 * 		   has no weigher.
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Records the hits and misses of <tt>get</tt> and <tt>getOrDefault</tt> and the evictions
+	 * of this cache, which are not recorded by default.
+	 *
+	 * @param statsRecorder the recorder, or {@link StatsRecorder#DISABLED} to stop recording
+	 */
+	public void setStatsRecorder(StatsRecorder statsRecorder) {
+		if (statsRecorder == null) {
+			throw new IllegalArgumentException("Stats recorder is null");
+		}
+		this.statsRecorder = statsRecorder;
+	}
+
+	/**
+	 * @return the statistics recorded so far, which are empty unless a recorder has been set.
+	 */
+	public CacheStats getStats() {
+		return statsRecorder.snapshot();
+	}
+
+	/**
+	 * Delivers the entries removed from this cache to the listener on the executor, with the
+	 * cause of each removal. Once a listener is set every mutation, including those of
+	 * <tt>compute</tt>, <tt>merge</tt> and the like, is routed through <tt>put</tt> and
+	 * <tt>remove</tt> so that no removal goes unnoticed. Entries removed through the views
+	 * (<tt>keySet()</tt>, <tt>entrySet()</tt>, <tt>values()</tt>) are not reported.
+	 *
+	 * @param listener the listener, called from one thread at a time
+	 * @param executor runs the listener, outside of the calls that removed the entries
+	 * @throws IllegalArgumentException if the listener or the executor is null
+	 * @see RemovalNotifier
+	 */
+	public void setRemovalListener(RemovalListener<? super K, ? super V> listener, Executor executor) {
+		setRemovalNotifier(new RemovalNotifier<K, V>(listener, executor));
+	}
+
+	void setRemovalNotifier(RemovalNotifier<K, V> removalNotifier) {
+		this.removalNotifier = removalNotifier;
+	}
+
+	private void notifyRemoval(K key, V value, RemovalCause cause) {
+		if (removalNotifier != null) {
+			removalNotifier.publish(key, value, cause);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		// neither the recorder nor the listener is serialized
+		statsRecorder = StatsRecorder.DISABLED;
+	}
+
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+
+	/**
+	 * @return a synchronized implementation of the <tt>Cache</tt>.
+	 */
+	public static <K, V> Map<K, V> synchornizedCache() {
+		return Collections.synchronizedMap(new Cache<K, V>(
+				DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_ACCESS_ORDER, DEFAULT_MAX_CAPACITY));
+	}
+	
+	/**
+	 * Returns a synchronized implementation of the <tt>Cache</tt> with the
+     * specified initial and maximum capacity, load factor and ordering mode.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @param  accessOrder     the ordering mode - <tt>true</tt> for access-order, 
+     * 											   <tt>false</tt> for insertion-order
+     * @param  maxCapacity the maximum cache capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is non-positive or maxCapcity is less than initialCapacity.
+	 */
+	public static <K, V> Map<K, V> synchornizedCache(int initialCapacity, float loadFactor, 
+			boolean isAccessOrder, int maxCapacity) {
+		return Collections.synchronizedMap(new Cache<K, V>(initialCapacity, loadFactor, isAccessOrder, maxCapacity));
+	}
+
+	/**
+	 * Returns a <tt>Cache</tt> that stores its values in direct memory, outside the Java heap.
+	 *
+	 * @param maxCapacity the maximum number of entries
+	 * @param maxMemory   the maximum number of bytes of direct memory to allocate
+	 * @param serializer  converts the values to and from bytes
+	 * @see OffHeapCache
+	 */
+	public static <K, V> OffHeapCache<K, V> offHeapCache(int maxCapacity, long maxMemory, Serializer<V> serializer) {
+		return new OffHeapCache<K, V>(maxCapacity, maxMemory, serializer);
+	}
+
+	/**
+	 * @return a lock-striped implementation of the <tt>Cache</tt>, which scales reads and
+	 * 		   writes with the number of threads instead of serializing them on one monitor.
+	 * @see ConcurrentCache
+	 */
+	public static <K, V> ConcurrentCache<K, V> concurrentCache() {
+		return new ConcurrentCache<K, V>();
+	}
+
+	/**
+	 * Returns a lock-striped implementation of the <tt>Cache</tt> with the
+     * specified initial and maximum capacity, load factor, ordering mode and concurrency level.
+     *
+     * @param  initialCapacity  the initial capacity
+     * @param  loadFactor       the load factor
+     * @param  isAccessOrder    the ordering mode - <tt>true</tt> for access-order,
+     * 											    <tt>false</tt> for insertion-order
+     * @param  maxCapacity      the maximum cache capacity
+     * @param  concurrencyLevel the desired number of independently locked segments
+     * @throws IllegalArgumentException if the initial capacity is negative, the load factor
+     *         is non-positive, maxCapcity is less than initialCapacity or the concurrency level
+     *         is non-positive.
+	 * @see ConcurrentCache
+	 */
+	public static <K, V> ConcurrentCache<K, V> concurrentCache(int initialCapacity, float loadFactor,
+			boolean isAccessOrder, int maxCapacity, int concurrencyLevel) {
+		return new ConcurrentCache<K, V>(initialCapacity, loadFactor, isAccessOrder, maxCapacity, concurrencyLevel);
+	}
+}
@@ -0,0 +1,241 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Saves the contents of a {@link Cache} or an {@link ExpiringCache} to a binary file and
+ * restores them, so that a restarted process does not begin with an empty cache.
+ * <p>
+ * Entries are written from the least to the most recently used, followed by an index of
+ * record offsets. A snapshot is restored through a memory-mapped read: the index lets the
+ * records be deserialized in parallel, after which they are inserted in their original order
+ * so the restored cache has the same LRU order. Expiring entries keep their expiring time and
+ * entries that expired while the process was down are skipped.
+ * <pre>
+ * header   int magic, int version, byte hasExpiringTime
+ * record   int keyLength, key, int valueLength, value [, long expiringTime]
+ * index    long recordOffset * count
+ * footer   long indexOffset, int count, int magic
+ * </pre>
+ * Snapshots are limited to 2 GB, the largest region that can be mapped at once.
+ */
+public final class CacheSnapshot {
+
+	/** "CSNP" - identifies a snapshot file */
+	private static final int MAGIC = 0x43534E50;
+
+	private static final int VERSION = 1;
+
+	/** 9 bytes - int magic, int version, byte hasExpiringTime */
+	private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + 1;
+
+	/** 16 bytes - long indexOffset, int count, int magic */
+	private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+	private CacheSnapshot() {
+		//static utility class
+	}
+
+	/**
+	 * Writes the entries of the cache to the file, replacing it atomically. The cache must not
+	 * be modified while the snapshot is written, so a shared cache should be locked by the caller.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public static <K, V> void write(Cache<K, V> cache, Path path, Serializer<K> keySerializer,
+			Serializer<V> valueSerializer) throws IOException {
+		List<byte[]> records = new ArrayList<>(cache.size() * 2);
+		for (Map.Entry<K, V> entry : cache.entrySet()) {
+			records.add(keySerializer.serialize(entry.getKey()));
+			records.add(valueSerializer.serialize(entry.getValue()));
+		}
+		write(path, records, null);
+	}
+
+	/**
+	 * Writes the unexpired entries of the cache and their expiring times to the file,
+	 * replacing it atomically.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public static <K, V> void write(ExpiringCache<K, V> cache, Path path, Serializer<K> keySerializer,
+			Serializer<V> valueSerializer) throws IOException {
+		long currentTimeMillis = System.currentTimeMillis();
+		List<ExpiringEntry<K, V>> entries = cache.entries();
+		List<byte[]> records = new ArrayList<>(entries.size() * 2);
+		List<Long> expiringTimes = new ArrayList<>(entries.size());
+		for (ExpiringEntry<K, V> entry : entries) {
+			long expiringTime = entry.getExpiringTime();
+			if (expiringTime > currentTimeMillis) {
+				records.add(keySerializer.serialize(entry.getKey()));
+				records.add(valueSerializer.serialize(entry.getValue()));
+				expiringTimes.add(expiringTime);
+			}
+		}
+		write(path, records, expiringTimes);
+	}
+
+	private static void write(Path path, List<byte[]> records, List<Long> expiringTimes) throws IOException {
+		Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+		int count = records.size() / 2;
+		long[] offsets = new long[count];
+
+		// the layout is computed up front, since the DataOutputStream counter stops at 2 GB
+		int fieldsSize = Integer.BYTES + Integer.BYTES + ((expiringTimes != null) ? Long.BYTES : 0);
+		long size = HEADER_SIZE;
+		for (int i=0; i<count; i++) {
+			offsets[i] = size;
+			size += fieldsSize + records.get(2 * i).length + records.get(2 * i + 1).length;
+		}
+		long indexOffset = size;
+		size += (long) count * Long.BYTES + FOOTER_SIZE;
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Snapshot of " + size + " bytes exceeds 2 GB");
+		}
+
+		try {
+			try (OutputStream output = Files.newOutputStream(temporaryPath);
+					DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 1 << 16))) {
+				data.writeInt(MAGIC);
+				data.writeInt(VERSION);
+				data.writeBoolean(expiringTimes != null);
+				for (int i=0; i<count; i++) {
+					byte[] key = records.get(2 * i);
+					byte[] value = records.get(2 * i + 1);
+					data.writeInt(key.length);
+					data.write(key);
+					data.writeInt(value.length);
+					data.write(value);
+					if (expiringTimes != null) {
+						data.writeLong(expiringTimes.get(i));
+					}
+				}
+				for (long offset : offsets) {
+					data.writeLong(offset);
+				}
+				data.writeLong(indexOffset);
+				data.writeInt(count);
+				data.writeInt(MAGIC);
+			}
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException | RuntimeException e) {
+			// the last good snapshot is left in place
+			Files.deleteIfExists(temporaryPath);
+			throw e;
+		}
+	}
+
+	/**
+	 * Restores the entries of a snapshot into the cache, in their original order.
+	 *
+	 * @throws IOException if the file cannot be read or is not a snapshot
+	 */
+	public static <K, V> void read(Path path, Cache<K, V> cache, Serializer<K> keySerializer,
+			Serializer<V> valueSerializer) throws IOException {
+		Records<K, V> records = read(path, keySerializer, valueSerializer);
+		for (int i=0; i<records.keys.length; i++) {
+			cache.put(records.keys[i], records.values[i]);
+		}
+	}
+
+	/**
+	 * Restores the unexpired entries of a snapshot into the cache, in their original order and
+	 * with their original expiring times. Snapshots of a plain {@link Cache} are restored with
+	 * the cache's full delay.
+	 *
+	 * @throws IOException if the file cannot be read or is not a snapshot
+	 */
+	public static <K, V> void read(Path path, ExpiringCache<K, V> cache, Serializer<K> keySerializer,
+			Serializer<V> valueSerializer) throws IOException {
+		Records<K, V> records = read(path, keySerializer, valueSerializer);
+		for (int i=0; i<records.keys.length; i++) {
+			if (records.expiringTimes == null) {
+				cache.put(records.keys[i], records.values[i]);
+			}
+			else {
+				cache.restore(records.keys[i], records.values[i], records.expiringTimes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Maps the file and deserializes its records in parallel.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Records<K, V> read(Path path, Serializer<K> keySerializer,
+			Serializer<V> valueSerializer) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Snapshot exceeds 2 GB: " + path);
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		int limit = buffer.limit();
+		if (limit < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(0) != MAGIC
+				|| buffer.getInt(limit - Integer.BYTES) != MAGIC) {
+			throw new IOException("Not a cache snapshot: " + path);
+		}
+		if (buffer.getInt(Integer.BYTES) != VERSION) {
+			throw new IOException("Unsupported snapshot version: " + buffer.getInt(Integer.BYTES));
+		}
+		boolean hasExpiringTime = buffer.get(2 * Integer.BYTES) != 0;
+		int indexOffset = (int) buffer.getLong(limit - FOOTER_SIZE);
+		int count = buffer.getInt(limit - FOOTER_SIZE + Long.BYTES);
+
+		Records<K, V> records = new Records<>((K[]) new Object[count], (V[]) new Object[count],
+				hasExpiringTime ? new long[count] : null);
+		IntStream.range(0, count).parallel().forEach(i -> {
+			// each record is read through its own view so the threads do not share a position
+			ByteBuffer record = buffer.duplicate();
+			record.position((int) buffer.getLong(indexOffset + i * Long.BYTES));
+			records.keys[i] = keySerializer.deserialize(nextField(record));
+			records.values[i] = valueSerializer.deserialize(nextField(record));
+			if (hasExpiringTime) {
+				records.expiringTimes[i] = record.getLong();
+			}
+		});
+		return records;
+	}
+
+	/**
+	 * @return a view of the length-prefixed field at the buffer's position, advancing past it.
+	 */
+	private static ByteBuffer nextField(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		ByteBuffer field = buffer.slice();
+		field.limit(length);
+		buffer.position(buffer.position() + length);
+		return field;
+	}
+
+	/**
+	 * The deserialized records of a snapshot, in their original order.
+	 */
+	private static final class Records<K, V> {
+		private final K[] keys;
+		private final V[] values;
+		private final long[] expiringTimes;
+
+		private Records(K[] keys, V[] values, long[] expiringTimes) {
+			this.keys = keys;
+			this.values = values;
+			this.expiringTimes = expiringTimes;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * An immutable snapshot of the statistics of a cache, as taken by {@link StatsRecorder#snapshot()}.
+ */
+public final class CacheStats {
+
+	static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, LatencyHistogram.Snapshot.EMPTY);
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long expirationCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final LatencyHistogram.Snapshot loadLatency;
+
+	CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount,
+			long loadSuccessCount, long loadFailureCount, LatencyHistogram.Snapshot loadLatency) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.expirationCount = expirationCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.loadLatency = loadLatency;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of lookups, hits and misses.
+	 */
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * @return the ratio of lookups that found a value, or 1 if there were no lookups.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0) ? 1 : (double) hitCount / requestCount;
+	}
+
+	/**
+	 * @return the ratio of lookups that found no value, or 0 if there were no lookups.
+	 */
+	public double getMissRate() {
+		long requestCount = getRequestCount();
+		return (requestCount == 0) ? 0 : (double) missCount / requestCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public long getExpirationCount() {
+		return expirationCount;
+	}
+
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * @return the durations of the successful and failed loads.
+	 */
+	public LatencyHistogram.Snapshot getLoadLatency() {
+		return loadLatency;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats[hits=" + hitCount + ", misses=" + missCount + ", hitRate=" + getHitRate()
+				+ ", evictions=" + evictionCount + ", expirations=" + expirationCount
+				+ ", loadSuccesses=" + loadSuccessCount + ", loadFailures=" + loadFailureCount
+				+ ", loadLatency=[" + loadLatency + "]]";
+	}
+}
@@ -0,0 +1,432 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A thread-safe LRU cache that splits its entries across a fixed number of
+ * independently locked segments.
+ * <p>
+ * Each segment is a {@link Cache} bounded by its share of <tt>maxCapacity</tt>, so a
+ * read that reorders the access list only locks the segment owning the key instead of
+ * the whole cache. Eviction is performed per segment, which makes the cache an
+ * approximation of a global LRU: the evicted entry is the least recently used entry
+ * of the segment that overflowed. Null keys are not permitted.
+ * <p>
+ * The total weight, by contrast, is bounded across all the segments, so that an entry may
+ * weigh up to <tt>maxWeight</tt> whichever segment it falls in; see
+ * {@link #ConcurrentCache(int, float, boolean, int, int, AdmissionPolicy, long, Weigher)}.
+ */
+public class ConcurrentCache<K, V> {
+
+	/** 16 - the default number of segments */
+	static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	/** 1 << 16 - the maximum number of segments */
+	private static final int MAX_CONCURRENCY_LEVEL = 1 << 16;
+
+	private final Cache<K, V>[] segments;
+	private final int segmentShift;
+	private final int maxCapacity;
+	
+	/** weighs each entry against maxWeight, or null if only the entry count is bounded */
+	private final Weigher<? super K, ? super V> weigher;
+	private final long maxWeight;
+	/** the total weight of the segments, which each adds its changes to */
+	private final AtomicLong weightedSize = new AtomicLong();
+	/** the segment the next eviction for weight starts from */
+	private final AtomicInteger evictionIndex = new AtomicInteger();
+
+	public ConcurrentCache() {
+		this(Cache.DEFAULT_INITIAL_CAPACITY, Cache.DEFAULT_LOAD_FACTOR, Cache.DEFAULT_ACCESS_ORDER,
+				Cache.DEFAULT_MAX_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Constructs an empty <tt>ConcurrentCache</tt> instance with the
+     * specified initial and maximum capacity, load factor, ordering mode and concurrency level.
+     *
+     * @param  initialCapacity  the initial capacity
+     * @param  loadFactor       the load factor
+     * @param  accessOrder      the ordering mode - <tt>true</tt> for
+     *         access-order, <tt>false</tt> for insertion-order
+     * @param  maxCapacity      the maximum cache capacity
+     * @param  concurrencyLevel the desired number of segments, rounded up to a power of two
+     *         and reduced if <tt>maxCapacity</tt> is too small to give each segment an entry
+     * @throws IllegalArgumentException if the initial capacity is negative, the load factor
+     *         is non-positive, maxCapcity is less than initialCapacity or the concurrency level
+     *         is non-positive.
+	 */
+	public ConcurrentCache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity,
+			int concurrencyLevel) {
+		this(initialCapacity, loadFactor, accessOrder, maxCapacity, concurrencyLevel, AdmissionPolicy.NONE);
+	}
+
+	/**
+	 * Constructs an empty <tt>ConcurrentCache</tt> instance whose segments use the given
+	 * admission policy.
+	 * 
+	 * @see #ConcurrentCache(int, float, boolean, int, int)
+	 * @see Cache#Cache(int, float, boolean, int, AdmissionPolicy)
+	 */
+	public ConcurrentCache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity,
+			int concurrencyLevel, AdmissionPolicy admissionPolicy) {
+		this(initialCapacity, loadFactor, accessOrder, maxCapacity, concurrencyLevel, admissionPolicy,
+				Long.MAX_VALUE, null);
+	}
+
+	/**
+	 * Constructs an empty <tt>ConcurrentCache</tt> instance bounded by both its entry count and
+	 * the total weight of its entries. The weight is bounded across all the segments: a write
+	 * that takes the total over <tt>maxWeight</tt> then evicts the victims of the segments in
+	 * turn until it is back within it, so the total briefly exceeds the maximum while writes
+	 * are in progress. An entry heavier than <tt>maxWeight</tt> cannot be kept and is rejected.
+	 * 
+	 * @see #ConcurrentCache(int, float, boolean, int, int)
+	 * @see Cache#Cache(int, float, boolean, int, AdmissionPolicy, long, Weigher)
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public ConcurrentCache(int initialCapacity, float loadFactor, boolean accessOrder, int maxCapacity,
+			int concurrencyLevel, AdmissionPolicy admissionPolicy, long maxWeight,
+			Weigher<? super K, ? super V> weigher) {
+		if (maxCapacity < initialCapacity) {
+			throw new IllegalArgumentException("Specified maximum capacity is less than its initial capacity");
+		}
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("Concurrency level must be greater than 0");
+		}
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("Specified maximum weight is negative");
+		}
+		this.maxCapacity = maxCapacity;
+		this.weigher = weigher;
+		this.maxWeight = (weigher == null) ? Long.MAX_VALUE : maxWeight;
+
+		int segmentCount = segmentCount(concurrencyLevel, maxCapacity);
+		this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+		this.segments = new Cache[segmentCount];
+
+		for (int i=0; i<segmentCount; i++) {
+			// spread the remainder so the segment capacities add up to exactly maxCapacity
+			int segmentMaxCapacity = maxCapacity / segmentCount + (i < maxCapacity % segmentCount ? 1 : 0);
+			int segmentInitialCapacity = Math.min(segmentMaxCapacity,
+					(initialCapacity + segmentCount - 1) / segmentCount);
+			// the segments weigh their entries but leave the weight to be bounded here
+			segments[i] = new Cache<>(segmentInitialCapacity, loadFactor, accessOrder, segmentMaxCapacity,
+					admissionPolicy, Long.MAX_VALUE, weigher);
+			if (weigher != null) {
+				segments[i].setSharedWeightedSize(weightedSize);
+			}
+		}
+	}
+
+	/**
+	 * @return the requested level rounded up to a power of two, halved until every
+	 * 		   segment can hold at least one entry.
+	 */
+	private static int segmentCount(int concurrencyLevel, int maxCapacity) {
+		int segmentCount = 1;
+		while (segmentCount < concurrencyLevel && segmentCount < MAX_CONCURRENCY_LEVEL) {
+			segmentCount <<= 1;
+		}
+		while (segmentCount > 1 && segmentCount > maxCapacity) {
+			segmentCount >>= 1;
+		}
+		return segmentCount;
+	}
+
+	/**
+	 * Selects the segment using the high bits of the spread hash, leaving the low bits
+	 * well distributed for the segment's own hash table.
+	 */
+	Cache<K, V> segmentFor(Object key) {
+		return segments[segmentIndex(key)];
+	}
+
+	private int segmentIndex(Object key) {
+		if (segmentShift == Integer.SIZE) {
+			return 0;
+		}
+		int hash = key.hashCode() * 0x9E3779B9;
+		return hash >>> segmentShift;
+	}
+
+	/**
+	 * Groups the keys by segment, so that each segment is locked once per bulk operation.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private <T> List<T>[] groupBySegment(Iterable<? extends T> items, Function<T, Object> keyOf) {
+		List<T>[] groups = new List[segments.length];
+		for (T item : items) {
+			int index = segmentIndex(keyOf.apply(item));
+			if (groups[index] == null) {
+				groups[index] = new ArrayList<>();
+			}
+			groups[index].add(item);
+		}
+		return groups;
+	}
+
+	public V get(K key) {
+		Cache<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.get(key);
+		}
+	}
+
+	public boolean containsKey(K key) {
+		Cache<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.containsKey(key);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the entry is heavier than the maximum weight
+	 */
+	public V put(K key, V value) {
+		checkWeight(key, value);
+		Cache<K, V> segment = segmentFor(key);
+		V previous;
+		synchronized (segment) {
+			previous = segment.put(key, value);
+		}
+		evictForWeight();
+		return previous;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the entry is heavier than the maximum weight
+	 */
+	public V putIfAbsent(K key, V value) {
+		checkWeight(key, value);
+		Cache<K, V> segment = segmentFor(key);
+		V current;
+		synchronized (segment) {
+			current = segment.putIfAbsent(key, value);
+		}
+		evictForWeight();
+		return current;
+	}
+
+	public V remove(K key) {
+		Cache<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.remove(key);
+		}
+	}
+
+	public boolean remove(K key, V value) {
+		Cache<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.remove(key, value);
+		}
+	}
+
+	/**
+	 * Looks up all the keys, locking each segment once rather than once per key.
+	 *
+	 * @return the values found, in the iteration order of the keys
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys) {
+		// the keys are iterated once, since an Iterable need not support a second pass
+		List<K> keyList = new ArrayList<>();
+		for (K key : keys) {
+			keyList.add(key);
+		}
+		List<K>[] groups = groupBySegment(keyList, key -> key);
+		Map<K, V> found = new HashMap<>();
+		for (int i=0; i<groups.length; i++) {
+			if (groups[i] != null) {
+				Cache<K, V> segment = segments[i];
+				synchronized (segment) {
+					for (K key : groups[i]) {
+						V value = segment.get(key);
+						if (value != null) {
+							found.put(key, value);
+						}
+					}
+				}
+			}
+		}
+		Map<K, V> values = new LinkedHashMap<>();
+		for (K key : keyList) {
+			V value = found.get(key);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Adds or replaces the values for all the keys, locking each segment once rather than
+	 * once per key.
+	 * 
+	 * @throws IllegalArgumentException if an entry is heavier than the maximum weight, in
+	 * 		   which case nothing is added
+	 */
+	public void putAll(Map<? extends K, ? extends V> map) {
+		if (weigher != null) {
+			for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+				checkWeight(entry.getKey(), entry.getValue());
+			}
+		}
+		List<Map.Entry<? extends K, ? extends V>>[] groups = groupBySegment(map.entrySet(), Map.Entry::getKey);
+		for (int i=0; i<groups.length; i++) {
+			if (groups[i] != null) {
+				Cache<K, V> segment = segments[i];
+				synchronized (segment) {
+					for (Map.Entry<? extends K, ? extends V> entry : groups[i]) {
+						segment.put(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+		}
+		evictForWeight();
+	}
+	
+	private void checkWeight(K key, V value) {
+		if (weigher != null && weigher.weigh(key, value) > maxWeight) {
+			throw new IllegalArgumentException("Entry weighs more than the maximum weight " + maxWeight);
+		}
+	}
+	
+	/**
+	 * Evicts the victim of each segment in turn, starting where the last eviction stopped,
+	 * until the total weight is within the maximum. Called without any segment lock held, so
+	 * that no two segment locks are ever held at once.
+	 */
+	private void evictForWeight() {
+		int emptySegments = 0;
+		while (weightedSize.get() > maxWeight && emptySegments < segments.length) {
+			Cache<K, V> segment = segments[evictionIndex.getAndIncrement() & (segments.length - 1)];
+			boolean isEvicted;
+			synchronized (segment) {
+				isEvicted = segment.evictEntry();
+			}
+			emptySegments = isEvicted ? 0 : emptySegments + 1;
+		}
+	}
+
+	/**
+	 * Removes the values for all the keys, locking each segment once rather than once per key.
+	 */
+	public void invalidateAll(Iterable<? extends K> keys) {
+		List<K>[] groups = groupBySegment(keys, key -> key);
+		for (int i=0; i<groups.length; i++) {
+			if (groups[i] != null) {
+				Cache<K, V> segment = segments[i];
+				synchronized (segment) {
+					for (K key : groups[i]) {
+						segment.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of entries in the cache. The segments are counted one at a time,
+	 * 		   so the result is only a snapshot while other threads are modifying the cache.
+	 */
+	public int size() {
+		int size = 0;
+		for (Cache<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		for (Cache<K, V> segment : segments) {
+			synchronized (segment) {
+				if (!segment.isEmpty()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	public void clear() {
+		for (Cache<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+
+	/**
+	 * @return the total weight of the entries, or 0 if the cache has no weigher.
+	 */
+	public long getWeightedSize() {
+		return weightedSize.get();
+	}
+
+	/**
+	 * @return the maximum total weight of the entries, or <tt>Long.MAX_VALUE</tt> if the cache
+	 * 		   has no weigher.
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Records the hits, misses and evictions of every segment into one recorder, which should
+	 * be thread-safe, such as a {@link ConcurrentStatsRecorder}.
+	 *
+	 * @param statsRecorder the recorder, or {@link StatsRecorder#DISABLED} to stop recording
+	 * @see Cache#setStatsRecorder(StatsRecorder)
+	 */
+	public void setStatsRecorder(StatsRecorder statsRecorder) {
+		for (Cache<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.setStatsRecorder(statsRecorder);
+			}
+		}
+	}
+
+	/**
+	 * Delivers the entries removed from every segment to one listener, whose notifications
+	 * are batched across the segments.
+	 *
+	 * @throws IllegalArgumentException if the listener or the executor is null
+	 * @see Cache#setRemovalListener(RemovalListener, Executor)
+	 */
+	public void setRemovalListener(RemovalListener<? super K, ? super V> listener, Executor executor) {
+		RemovalNotifier<K, V> removalNotifier = new RemovalNotifier<>(listener, executor);
+		for (Cache<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.setRemovalNotifier(removalNotifier);
+			}
+		}
+	}
+
+	/**
+	 * @return the statistics recorded so far, which are empty unless a recorder has been set.
+	 */
+	public CacheStats getStats() {
+		Cache<K, V> segment = segments[0];
+		synchronized (segment) {
+			return segment.getStats();
+		}
+	}
+
+	int getSegmentCount() {
+		return segments.length;
+	}
+}
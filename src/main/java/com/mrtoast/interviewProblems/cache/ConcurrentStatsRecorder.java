@@ -0,0 +1,58 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe {@link StatsRecorder} that counts events in {@link LongAdder}s, which spread
+ * concurrent increments over striped cells instead of contending on one atomic counter. One
+ * recorder may be shared by several caches, for example all the segments of a
+ * {@link ConcurrentCache}, to report their combined statistics.
+ */
+public class ConcurrentStatsRecorder implements StatsRecorder {
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder expirationCount = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+	@Override
+	public void recordHits(int count) {
+		hitCount.add(count);
+	}
+
+	@Override
+	public void recordMisses(int count) {
+		missCount.add(count);
+	}
+
+	@Override
+	public void recordEviction() {
+		evictionCount.increment();
+	}
+
+	@Override
+	public void recordExpiration() {
+		expirationCount.increment();
+	}
+
+	@Override
+	public void recordLoadSuccess(long loadTimeNanos) {
+		loadSuccessCount.increment();
+		loadLatency.record(loadTimeNanos);
+	}
+
+	@Override
+	public void recordLoadFailure(long loadTimeNanos) {
+		loadFailureCount.increment();
+		loadLatency.record(loadTimeNanos);
+	}
+
+	@Override
+	public CacheStats snapshot() {
+		return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), expirationCount.sum(),
+				loadSuccessCount.sum(), loadFailureCount.sum(), loadLatency.snapshot());
+	}
+}
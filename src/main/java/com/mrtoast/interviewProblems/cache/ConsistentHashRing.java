@@ -0,0 +1,110 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Assigns keys to nodes so that adding or removing a node only moves the keys of that node.
+ * <p>
+ * Each node is placed on a ring of 64-bit positions at a number of pseudo-random virtual
+ * positions, and a key is owned by the first node found clockwise from the key's position.
+ * Virtual positions spread every node's share of the keys over the whole ring, which keeps
+ * the shares even and lets a removed node's keys fall to all the other nodes instead of one.
+ * <p>
+ * Key positions are derived from <tt>hashCode()</tt>, which must therefore be the same in
+ * every JVM, as it is for strings and boxed primitives but not for enums or objects using the
+ * identity hash code. Lookups read an immutable copy of the ring and take no lock.
+ */
+public class ConsistentHashRing {
+	
+	/** 128 - the default number of virtual positions of each node */
+	static final int DEFAULT_VIRTUAL_NODES = 128;
+	
+	private final int virtualNodes;
+	private volatile NavigableMap<Long, String> ring = Collections.emptyNavigableMap();
+	
+	public ConsistentHashRing(Collection<String> nodes) {
+		this(nodes, DEFAULT_VIRTUAL_NODES);
+	}
+	
+	/**
+	 * @param nodes the initial nodes
+	 * @param virtualNodes the number of positions of each node on the ring
+	 * @throws IllegalArgumentException if the number of virtual nodes is not positive
+	 */
+	public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+		if (virtualNodes <= 0) {
+			throw new IllegalArgumentException("Virtual nodes must be greater than 0");
+		}
+		this.virtualNodes = virtualNodes;
+		for (String node : nodes) {
+			addNode(node);
+		}
+	}
+	
+	public synchronized void addNode(String node) {
+		NavigableMap<Long, String> newRing = new TreeMap<>(ring);
+		long nodeHash = hash(node);
+		for (int i=0; i<virtualNodes; i++) {
+			// on the rare collision the node that sorts first keeps the position on every member
+			long position = mix(nodeHash + i * 0x9E3779B97F4A7C15L);
+			String current = newRing.get(position);
+			if (current == null || node.compareTo(current) < 0) {
+				newRing.put(position, node);
+			}
+		}
+		ring = newRing;
+	}
+	
+	public synchronized void removeNode(String node) {
+		NavigableMap<Long, String> newRing = new TreeMap<>(ring);
+		newRing.values().removeIf(node::equals);
+		ring = newRing;
+	}
+	
+	/**
+	 * @return the node owning the key.
+	 * @throws IllegalStateException if the ring has no nodes
+	 */
+	public String getOwner(Object key) {
+		NavigableMap<Long, String> ring = this.ring;
+		if (ring.isEmpty()) {
+			throw new IllegalStateException("Ring has no nodes");
+		}
+		Map.Entry<Long, String> owner = ring.ceilingEntry(mix(key.hashCode()));
+		return (owner == null) ? ring.firstEntry().getValue() : owner.getValue();
+	}
+	
+	/**
+	 * @return the nodes on the ring.
+	 */
+	public Set<String> getNodes() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(ring.values()));
+	}
+	
+	/**
+	 * @return the 64-bit FNV-1a hash of the node's UTF-8 bytes.
+	 */
+	private static long hash(String node) {
+		long hash = 0xCBF29CE484222325L;
+		for (byte b : node.getBytes(StandardCharsets.UTF_8)) {
+			hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * @return the finalizer of MurmurHash3, which spreads every input bit over the output.
+	 */
+	private static long mix(long hash) {
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+}
@@ -0,0 +1,69 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The kind of threads a {@link ThreadLocalCache} runs its tasks and asynchronous loads on.
+ */
+public enum ExecutionMode {
+	/**
+	 * Tasks run on a small, bounded pool of platform threads, which rejects tasks once its
+	 * threads and queue are full.
+	 *
+	 * @see ThreadPoolExecutorImpl
+	 */
+	PLATFORM_THREADS {
+		@Override
+		ExecutorService newExecutor(ScheduledExecutorService scheduler) {
+			return new ThreadPoolExecutorImpl();
+		}
+	},
+
+	/**
+	 * Tasks run on a pool of platform threads like {@link #PLATFORM_THREADS}, whose core and
+	 * maximum sizes are adapted to the observed queue wait, throughput and processor load, so
+	 * warm threads are kept for bursty loads without holding threads the tasks do not need.
+	 *
+	 * @see ThreadPoolExecutorImpl#newAdaptive(ScheduledExecutorService)
+	 */
+	ADAPTIVE_PLATFORM_THREADS {
+		@Override
+		ExecutorService newExecutor(ScheduledExecutorService scheduler) {
+			return ThreadPoolExecutorImpl.newAdaptive(scheduler);
+		}
+	},
+
+	/**
+	 * Every task runs on its own virtual thread, so tasks blocked on I/O do not hold a pool
+	 * thread, while a limit on the number of concurrently running tasks still protects the
+	 * backend. On runtimes without virtual threads the tasks run on platform threads instead.
+	 *
+	 * @see VirtualThreadExecutor
+	 */
+	VIRTUAL_THREADS {
+		@Override
+		ExecutorService newExecutor(ScheduledExecutorService scheduler) {
+			return new VirtualThreadExecutor(VirtualThreadExecutor.DEFAULT_MAX_CONCURRENCY);
+		}
+	},
+
+	/**
+	 * One worker per processor, each with its own deque of tasks, stealing from each other
+	 * when idle. Suited to short tasks that fan out subtasks, which stay on the worker that
+	 * submitted them.
+	 *
+	 * @see WorkStealingExecutor
+	 */
+	WORK_STEALING {
+		@Override
+		ExecutorService newExecutor(ScheduledExecutorService scheduler) {
+			return new WorkStealingExecutor();
+		}
+	};
+
+	/**
+	 * @param scheduler the owner's scheduler, for modes that adjust the executor over time
+	 */
+	abstract ExecutorService newExecutor(ScheduledExecutorService scheduler);
+}
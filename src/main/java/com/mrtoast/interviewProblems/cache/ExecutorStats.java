@@ -0,0 +1,108 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of the task latencies and the state of a {@link ThreadPoolExecutorImpl},
+ * as taken by {@link ThreadPoolExecutorImpl#getStats()}.
+ * <p>
+ * Long queue waits with short execution times mean the pool is undersized, while long
+ * execution times mean the tasks themselves are slow. The completion rate is measured
+ * between two snapshots, see {@link #getThroughput(ExecutorStats)}.
+ */
+public final class ExecutorStats {
+
+	private final long time;
+	private final int poolSize;
+	private final int activeCount;
+	private final int queueSize;
+	private final long completedTaskCount;
+	private final long rejectedCount;
+	private final LatencyHistogram.Snapshot queueWait;
+	private final LatencyHistogram.Snapshot executionTime;
+
+	ExecutorStats(long time, int poolSize, int activeCount, int queueSize, long completedTaskCount,
+			long rejectedCount, LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot executionTime) {
+		this.time = time;
+		this.poolSize = poolSize;
+		this.activeCount = activeCount;
+		this.queueSize = queueSize;
+		this.completedTaskCount = completedTaskCount;
+		this.rejectedCount = rejectedCount;
+		this.queueWait = queueWait;
+		this.executionTime = executionTime;
+	}
+
+	/**
+	 * @return the <tt>System.nanoTime()</tt> at which the snapshot was taken.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * @return the number of threads in the pool.
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * @return the approximate number of threads executing tasks.
+	 */
+	public int getActiveCount() {
+		return activeCount;
+	}
+
+	/**
+	 * @return the number of tasks waiting in the queue.
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * @return the approximate number of tasks that have completed.
+	 */
+	public long getCompletedTaskCount() {
+		return completedTaskCount;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	/**
+	 * @return the times tasks spent in the queue before a thread started them.
+	 */
+	public LatencyHistogram.Snapshot getQueueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * @return the times tasks spent executing.
+	 */
+	public LatencyHistogram.Snapshot getExecutionTime() {
+		return executionTime;
+	}
+
+	/**
+	 * @param earlier a snapshot of the same executor taken before this one
+	 * @return the number of tasks completed per second between the two snapshots, or 0 if
+	 * 		   they were taken at the same time.
+	 */
+	public double getThroughput(ExecutorStats earlier) {
+		long elapsed = time - earlier.time;
+		if (elapsed <= 0) {
+			return 0;
+		}
+		return (double) (completedTaskCount - earlier.completedTaskCount) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutorStats[poolSize=" + poolSize + ", active=" + activeCount + ", queued=" + queueSize
+				+ ", completed=" + completedTaskCount + ", rejected=" + rejectedCount
+				+ ", queueWait=[" + queueWait + "], executionTime=[" + executionTime + "]]";
+	}
+}
@@ -0,0 +1,17 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * When the delay of an {@link ExpiringCache} entry starts over.
+ */
+public enum ExpirationMode {
+	/**
+	 * Entries expire their delay after they were last put, however often they are read.
+	 */
+	AFTER_WRITE,
+	
+	/**
+	 * Entries expire their delay after they were last put or read, so entries that keep
+	 * being read are kept while idle entries are reclaimed.
+	 */
+	AFTER_ACCESS
+}
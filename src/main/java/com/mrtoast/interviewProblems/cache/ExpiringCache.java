@@ -1,49 +1,364 @@
-package com.mrtoast.interviewProblems.cache;
-
-import java.util.Map;
-import java.util.concurrent.DelayQueue;
-
-public class ExpiringCache<K, V> {
-	
-	private final long delay;
-	private final Map<K, V> cache;
-	private final DelayQueue<ExpiringKey<K>> delayQueue = new DelayQueue<>();
-	
-	public ExpiringCache(long delay, int maxSize) {
-		this.delay = delay;
-		this.cache = Cache.synchornizedCache();
-	}
-	
-	public void put(K key, V value) {
-		offerQueue(key);
-		cache.put(key, value);
-	}
-	
-	private void offerQueue(K key) {
-		ExpiringKey<K> expiringKey = new ExpiringKey<>(key, delay);
-		delayQueue.offer(expiringKey);
-	}
-	
-	public V get(K key) {
-		return cache.get(key);
-	}
-	
-	public V remove(K key) {
-		return cache.remove(key);
-	}
-	
-	public void clear() {
-		cache.clear();
-	}
-	
-	/**
-	 * Removes expired keys from the cache.
-	 */
-	public void cleanup() {
-		ExpiringKey<K> expiringKey = delayQueue.poll();
-		while (expiringKey != null) {
-			cache.remove(expiringKey.getKey());
-			expiringKey = delayQueue.poll();
-		}
-	}
-}
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded LRU cache whose entries expire a delay after they were last put, or with
+ * {@link ExpirationMode#AFTER_ACCESS} after they were last put or read. The delay is the
+ * cache's default unless the entry was put with its own time to live.
+ * <p>
+ * Each entry is a single node of the {@link TimerWheel}, so renewing an entry on a write or
+ * a read moves the node to another bucket instead of queueing another expiration.
+ * <p>
+ * Expired entries are treated as misses as soon as they are read. Their memory is reclaimed
+ * incrementally: every <tt>put</tt> and <tt>get</tt> visits at most {@value #CLEANUP_BUDGET}
+ * entries of the timer wheel, expiring them or cascading them to a finer level, so no single
+ * call pays for a bulk cleanup. {@link #cleanup()}
+ * remains available to reclaim everything that has expired at once.
+ */
+public class ExpiringCache<K, V> {
+	
+	/** 16 - the maximum number of timer wheel entries visited, and so expired, by each put and get */
+	static final int CLEANUP_BUDGET = 16;
+	
+	private final long delay;
+	private final ExpirationMode expirationMode;
+	private final Cache<K, ExpiringEntry<K, V>> cache;
+	private final TimerWheel<K> timerWheel = new TimerWheel<>(System.currentTimeMillis());
+	private StatsRecorder statsRecorder = StatsRecorder.DISABLED;
+	
+	/** delivers the removals to a listener, or null if there is none */
+	private RemovalNotifier<K, V> removalNotifier;
+	
+	public ExpiringCache(long delay, int maxSize) {
+		this(delay, maxSize, ExpirationMode.AFTER_WRITE);
+	}
+	
+	/**
+	 * @param delay the default time in milliseconds after which an entry expires
+	 * @param maxSize the maximum number of entries
+	 * @param expirationMode whether reads also renew the entries
+	 */
+	public ExpiringCache(long delay, int maxSize, ExpirationMode expirationMode) {
+		this.delay = delay;
+		this.expirationMode = expirationMode;
+		this.cache = new Cache<K, ExpiringEntry<K, V>>(Math.min(Cache.DEFAULT_INITIAL_CAPACITY, maxSize),
+				Cache.DEFAULT_LOAD_FACTOR, Cache.DEFAULT_ACCESS_ORDER, maxSize) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, ExpiringEntry<K, V>> eldest) {
+				if (super.removeEldestEntry(eldest)) {
+					timerWheel.deschedule(eldest.getValue());
+					statsRecorder.recordEviction();
+					notifyRemoval(eldest.getValue(), RemovalCause.SIZE);
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	/**
+	 * Adds or replaces the value for the key. An existing entry is renewed and moved
+	 * within the timer wheel instead of queueing another expiration.
+	 */
+	public synchronized void put(K key, V value) {
+		long currentTimeMillis = System.currentTimeMillis();
+		putEntry(key, value, delay, currentTimeMillis);
+		expireEntries(currentTimeMillis, CLEANUP_BUDGET);
+	}
+	
+	/**
+	 * Adds or replaces the value for the key with its own time to live instead of the
+	 * cache's delay. The time to live applies until the key is put again.
+	 * 
+	 * @throws IllegalArgumentException if the time to live is not positive
+	 */
+	public synchronized void put(K key, V value, long ttl, TimeUnit unit) {
+		long entryDelay = unit.toMillis(ttl);
+		if (entryDelay <= 0) {
+			throw new IllegalArgumentException("Time to live must be at least 1 millisecond");
+		}
+		long currentTimeMillis = System.currentTimeMillis();
+		putEntry(key, value, entryDelay, currentTimeMillis);
+		expireEntries(currentTimeMillis, CLEANUP_BUDGET);
+	}
+	
+	/**
+	 * Adds or replaces the values for all the keys under a single lock acquisition. Every
+	 * entry of the batch expires at the same time.
+	 */
+	public synchronized void putAll(Map<? extends K, ? extends V> map) {
+		long currentTimeMillis = System.currentTimeMillis();
+		for (Map.Entry<? extends K, ? extends V> mapEntry : map.entrySet()) {
+			putEntry(mapEntry.getKey(), mapEntry.getValue(), delay, currentTimeMillis);
+		}
+		expireEntries(currentTimeMillis, CLEANUP_BUDGET);
+	}
+	
+	/**
+	 * Adds the entry or renews the existing one. The delay of a node is fixed, so an existing
+	 * entry with a different delay is replaced by a new node.
+	 */
+	private void putEntry(K key, V value, long entryDelay, long currentTimeMillis) {
+		ExpiringEntry<K, V> entry = cache.get(key);
+		if (entry != null && entry.getExpiringTime() <= currentTimeMillis) {
+			// a value that expired before being reclaimed was not replaced by this put
+			statsRecorder.recordExpiration();
+			notifyRemoval(entry, RemovalCause.EXPIRED);
+		}
+		else if (entry != null) {
+			notifyRemoval(entry, RemovalCause.REPLACED);
+		}
+		if (entry != null && entry.getDelayMillis() != entryDelay) {
+			timerWheel.deschedule(entry);
+			entry = null;
+		}
+		if (entry == null) {
+			entry = new ExpiringEntry<>(key, value, entryDelay);
+			entry.setExpiringTime(currentTimeMillis + entryDelay);
+			// schedule before inserting so that an immediate eviction also deschedules it
+			timerWheel.schedule(entry);
+			cache.put(key, entry);
+		}
+		else {
+			entry.setValue(value);
+			entry.setExpiringTime(currentTimeMillis + entryDelay);
+			timerWheel.schedule(entry);
+		}
+	}
+	
+	/**
+	 * @return the value for the key, or <tt>null</tt> if there is no value or it has expired.
+	 */
+	public V get(K key) {
+		ExpiringEntry<K, V> entry = getEntry(key);
+		return (entry == null) ? null : entry.getValue();
+	}
+	
+	/**
+	 * Looks up all the keys under a single lock acquisition.
+	 * 
+	 * @return the unexpired values, in the iteration order of the keys
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys) {
+		Map<K, V> values = new LinkedHashMap<>();
+		for (Map.Entry<K, ExpiringEntry<K, V>> entry : getEntries(keys).entrySet()) {
+			values.put(entry.getKey(), entry.getValue().getValue());
+		}
+		return values;
+	}
+	
+	/**
+	 * @return the unexpired entries for the keys, in their iteration order.
+	 */
+	synchronized Map<K, ExpiringEntry<K, V>> getEntries(Iterable<? extends K> keys) {
+		Map<K, ExpiringEntry<K, V>> entries = new LinkedHashMap<>();
+		for (K key : keys) {
+			ExpiringEntry<K, V> entry = getEntry(key, true);
+			if (entry != null) {
+				entries.put(key, entry);
+			}
+		}
+		return entries;
+	}
+	
+	/**
+	 * @return the unexpired entry for the key, or <tt>null</tt> if there is none.
+	 */
+	ExpiringEntry<K, V> getEntry(K key) {
+		return getEntry(key, true);
+	}
+	
+	/**
+	 * @param isRecorded whether to record the lookup as a hit or miss
+	 * @return the unexpired entry for the key, or <tt>null</tt> if there is none.
+	 */
+	synchronized ExpiringEntry<K, V> getEntry(K key, boolean isRecorded) {
+		long currentTimeMillis = System.currentTimeMillis();
+		ExpiringEntry<K, V> entry = cache.get(key);
+		if (entry != null && entry.getExpiringTime() <= currentTimeMillis) {
+			cache.remove(key);
+			timerWheel.deschedule(entry);
+			statsRecorder.recordExpiration();
+			notifyRemoval(entry, RemovalCause.EXPIRED);
+			entry = null;
+		}
+		else if (entry != null && expirationMode == ExpirationMode.AFTER_ACCESS) {
+			entry.renew();
+			timerWheel.schedule(entry);
+		}
+		if (isRecorded) {
+			if (entry == null) {
+				statsRecorder.recordMisses(1);
+			}
+			else {
+				statsRecorder.recordHits(1);
+			}
+		}
+		expireEntries(currentTimeMillis, CLEANUP_BUDGET);
+		return entry;
+	}
+	
+	/**
+	 * Adds an entry that expires at the given time instead of after the delay, as when it
+	 * is restored from a snapshot. The entry is renewed for the full delay if it is put again.
+	 * Entries that have already expired are ignored.
+	 * 
+	 * @param expiringTime the time in milliseconds since the epoch at which the entry expires
+	 */
+	synchronized void restore(K key, V value, long expiringTime) {
+		long currentTimeMillis = System.currentTimeMillis();
+		if (expiringTime <= currentTimeMillis) {
+			return;
+		}
+		ExpiringEntry<K, V> entry = cache.get(key);
+		if (entry == null) {
+			entry = new ExpiringEntry<>(key, value, delay);
+			entry.setExpiringTime(expiringTime);
+			timerWheel.schedule(entry);
+			cache.put(key, entry);
+		}
+		else {
+			notifyRemoval(entry, RemovalCause.REPLACED);
+			entry.setValue(value);
+			entry.setExpiringTime(expiringTime);
+			timerWheel.schedule(entry);
+		}
+	}
+	
+	/**
+	 * @return a copy of the entries, from the least to the most recently used.
+	 */
+	synchronized List<ExpiringEntry<K, V>> entries() {
+		return new ArrayList<>(cache.values());
+	}
+	
+	public synchronized V remove(K key) {
+		ExpiringEntry<K, V> entry = cache.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		timerWheel.deschedule(entry);
+		notifyRemoval(entry, RemovalCause.EXPLICIT);
+		return entry.getValue();
+	}
+	
+	/**
+	 * Expires the entry for the key now, before its delay has passed. Unlike a removal this
+	 * counts as an expiration in the statistics.
+	 * 
+	 * @return <tt>true</tt> if there was an unexpired entry for the key.
+	 */
+	public synchronized boolean expire(K key) {
+		ExpiringEntry<K, V> entry = cache.remove(key);
+		if (entry == null) {
+			return false;
+		}
+		boolean isExpired = entry.getExpiringTime() <= System.currentTimeMillis();
+		entry.expire();
+		timerWheel.deschedule(entry);
+		statsRecorder.recordExpiration();
+		notifyRemoval(entry, RemovalCause.EXPIRED);
+		return !isExpired;
+	}
+	
+	/**
+	 * Removes the values for all the keys under a single lock acquisition.
+	 */
+	public synchronized void invalidateAll(Iterable<? extends K> keys) {
+		for (K key : keys) {
+			ExpiringEntry<K, V> entry = cache.remove(key);
+			if (entry != null) {
+				timerWheel.deschedule(entry);
+				notifyRemoval(entry, RemovalCause.EXPLICIT);
+			}
+		}
+	}
+	
+	public synchronized void clear() {
+		if (removalNotifier != null) {
+			for (ExpiringEntry<K, V> entry : cache.values()) {
+				notifyRemoval(entry, RemovalCause.EXPLICIT);
+			}
+		}
+		cache.clear();
+		timerWheel.clear();
+	}
+	
+	/**
+	 * @return the number of entries in the cache, including expired entries that
+	 * 		   have not been reclaimed yet.
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+	
+	/**
+	 * Records the hits, misses, evictions and expirations of this cache, which are not
+	 * recorded by default.
+	 * 
+	 * @param statsRecorder the recorder, or {@link StatsRecorder#DISABLED} to stop recording
+	 */
+	public synchronized void setStatsRecorder(StatsRecorder statsRecorder) {
+		if (statsRecorder == null) {
+			throw new IllegalArgumentException("Stats recorder is null");
+		}
+		this.statsRecorder = statsRecorder;
+	}
+	
+	synchronized StatsRecorder getStatsRecorder() {
+		return statsRecorder;
+	}
+	
+	/**
+	 * @return the statistics recorded so far, which are empty unless a recorder has been set.
+	 */
+	public CacheStats getStats() {
+		return getStatsRecorder().snapshot();
+	}
+	
+	/**
+	 * Delivers the entries removed from this cache to the listener on the executor, with the
+	 * cause of each removal. Entries reclaimed by {@link #cleanup()} or the incremental
+	 * cleanup of <tt>put</tt> and <tt>get</tt> are reported as {@link RemovalCause#EXPIRED}.
+	 *
+	 * @param listener the listener, called from one thread at a time
+	 * @param executor runs the listener, outside of the calls that removed the entries
+	 * @throws IllegalArgumentException if the listener or the executor is null
+	 * @see RemovalNotifier
+	 */
+	public synchronized void setRemovalListener(RemovalListener<? super K, ? super V> listener,
+			Executor executor) {
+		this.removalNotifier = new RemovalNotifier<>(listener, executor);
+	}
+	
+	private void notifyRemoval(ExpiringEntry<K, V> entry, RemovalCause cause) {
+		if (removalNotifier != null) {
+			removalNotifier.publish(entry.getKey(), entry.getValue(), cause);
+		}
+	}
+	
+	/**
+	 * Removes expired keys from the cache.
+	 */
+	public synchronized void cleanup() {
+		expireEntries(System.currentTimeMillis(), Integer.MAX_VALUE);
+	}
+	
+	private void expireEntries(long currentTimeMillis, int budget) {
+		timerWheel.advance(currentTimeMillis, expiringKey -> {
+			ExpiringEntry<K, V> entry = cache.remove(expiringKey.getKey());
+			if (entry != null) {
+				statsRecorder.recordExpiration();
+				notifyRemoval(entry, RemovalCause.EXPIRED);
+			}
+		}, budget);
+	}
+}
@@ -0,0 +1,28 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * An {@link ExpiringKey} that also holds the cached value, so that each entry of an
+ * {@link ExpiringCache} is a single node shared by the map and the {@link TimerWheel}.
+ */
+class ExpiringEntry<K, V> extends ExpiringKey<K> {
+
+	private volatile V value;
+
+	/**
+	 * @param key K
+	 * @param value V
+	 * @param delay desired delay time in milliseconds
+	 */
+	ExpiringEntry(K key, V value, long delay) {
+		super(key, delay);
+		this.value = value;
+	}
+
+	V getValue() {
+		return value;
+	}
+
+	void setValue(V value) {
+		this.value = value;
+	}
+}
@@ -0,0 +1,118 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Objects;
+
+/**
+ * A count-min sketch that estimates how often a key has been seen recently.
+ * <p>
+ * Each <tt>long</tt> of the table holds sixteen 4-bit counters and every key is counted
+ * in four of them, so the sketch costs 8 bytes per entry of the maximum cache size.
+ * Once the number of increments reaches ten times that size all counters are halved,
+ * which ages out keys that were popular in the past but are no longer being used.
+ */
+final class FrequencySketch<K> {
+	
+	/** the seeds of the four hash functions */
+	private static final long[] SEED = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+	
+	/** clears the high bit of every counter after a shift */
+	private static final long RESET_MASK = 0x7777777777777777L;
+	
+	/** selects the low bit of every counter */
+	private static final long ONE_MASK = 0x1111111111111111L;
+	
+	/** 15 - the highest value of a 4-bit counter */
+	private static final int MAX_FREQUENCY = 15;
+	
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int size;
+	
+	/**
+	 * @param maximumSize the maximum size of the cache the sketch counts keys for
+	 */
+	FrequencySketch(int maximumSize) {
+		int maximum = Math.min(Math.max(maximumSize, 1), 1 << 30);
+		this.table = new long[ceilingPowerOfTwo(maximum)];
+		this.tableMask = table.length - 1;
+		this.sampleSize = (maximum <= Integer.MAX_VALUE / 10) ? 10 * maximum : Integer.MAX_VALUE;
+	}
+	
+	private static int ceilingPowerOfTwo(int value) {
+		return (value == 1) ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+	
+	/**
+	 * @return the estimated number of occurrences of the key, up to a maximum of 15.
+	 */
+	int frequency(Object key) {
+		int hash = spread(Objects.hashCode(key));
+		int start = (hash & 3) << 2;
+		int frequency = MAX_FREQUENCY;
+		for (int i=0; i<4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+	
+	/**
+	 * Increments the estimated occurrences of the key, aging all counters once the
+	 * sample size is reached.
+	 */
+	void increment(Object key) {
+		int hash = spread(Objects.hashCode(key));
+		int start = (hash & 3) << 2;
+		boolean isAdded = false;
+		for (int i=0; i<4; i++) {
+			isAdded |= incrementAt(indexOf(hash, i), start + i);
+		}
+		if (isAdded && (++size == sampleSize)) {
+			reset();
+		}
+	}
+	
+	/**
+	 * Increments the counter at the given 4-bit offset of the table entry unless it is saturated.
+	 */
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[index] & mask) != mask) {
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Halves every counter. The odd counters lose their remainder, which is subtracted
+	 * from the size so that it keeps tracking the sum of the counters.
+	 */
+	private void reset() {
+		int oddCounters = 0;
+		for (int i=0; i<table.length; i++) {
+			oddCounters += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size >>> 1) - (oddCounters >>> 2);
+	}
+	
+	private int indexOf(int hash, int i) {
+		long index = (hash + SEED[i]) * SEED[i];
+		index += (index >>> 32);
+		return ((int) index) & tableMask;
+	}
+	
+	/**
+	 * Applies a supplemental hash so that keys with poor hash codes still use the whole table.
+	 */
+	static int spread(int hash) {
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		return (hash >>> 16) ^ hash;
+	}
+}
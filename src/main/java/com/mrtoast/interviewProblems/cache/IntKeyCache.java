@@ -0,0 +1,317 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Arrays;
+
+/**
+ * A bounded LRU cache keyed by primitive <tt>int</tt>s, for keys such as ids or indexes.
+ * <p>
+ * Entries live in parallel arrays indexed by an entry number: the keys, the values, the
+ * expiring times and the <tt>int</tt> links of the LRU list. An open-addressing table of
+ * entry numbers, probed linearly from the key's hash, locates the entry of a key. Keys are
+ * never boxed and <tt>get</tt> and <tt>put</tt> allocate nothing, and an entry costs about
+ * 36 bytes of arrays instead of a <tt>LinkedHashMap</tt> node, a boxed key and their headers.
+ * <p>
+ * With a delay, entries expire that many milliseconds after they were last put, as in an
+ * {@link ExpiringCache}. Expired entries are treated as misses and reclaimed when they are
+ * read, when they reach the head of the LRU list or by {@link #cleanup()}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @see LongKeyCache
+ */
+public class IntKeyCache<V> {
+
+	/** -1 - the link of an entry at either end of the LRU list */
+	private static final int NONE = -1;
+
+	/** 0 - the delay of a cache whose entries never expire */
+	static final long NO_DELAY = 0;
+
+	private final int maxCapacity;
+	private final long delay;
+
+	/** entry number + 1 of the entry in each slot, or 0 for an empty slot */
+	private final int[] table;
+	private final int mask;
+
+	private final int[] keys;
+	private final Object[] values;
+	private final long[] expiringTimes;
+	private final int[] previous;
+	private final int[] next;
+
+	/** the least recently used entry, the most recently used entry and the first free entry */
+	private int head = NONE;
+	private int tail = NONE;
+	private int free;
+	private int size;
+
+	/**
+	 * @param maxCapacity the maximum number of entries
+	 * @throws IllegalArgumentException if the maximum capacity is not positive or too large
+	 */
+	public IntKeyCache(int maxCapacity) {
+		this(maxCapacity, NO_DELAY);
+	}
+
+	/**
+	 * @param maxCapacity the maximum number of entries
+	 * @param delay the time in milliseconds after which an entry expires, or 0 for never
+	 * @throws IllegalArgumentException if the maximum capacity is not positive or too large,
+	 * 		   or the delay is negative
+	 */
+	public IntKeyCache(int maxCapacity, long delay) {
+		if (maxCapacity <= 0 || maxCapacity > 1 << 29) {
+			throw new IllegalArgumentException("Maximum capacity must be between 1 and 2^29");
+		}
+		if (delay < 0) {
+			throw new IllegalArgumentException("Delay is negative");
+		}
+		this.maxCapacity = maxCapacity;
+		this.delay = delay;
+		// at most half full, which keeps linear probe sequences short
+		int tableSize = Integer.highestOneBit(maxCapacity * 2 - 1) << 1;
+		this.table = new int[tableSize];
+		this.mask = tableSize - 1;
+		this.keys = new int[maxCapacity];
+		this.values = new Object[maxCapacity];
+		this.expiringTimes = (delay == NO_DELAY) ? null : new long[maxCapacity];
+		this.previous = new int[maxCapacity];
+		this.next = new int[maxCapacity];
+		initFreeList();
+	}
+
+	/**
+	 * @return the value for the key, or <tt>null</tt> if there is none or it has expired.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = findSlot(key);
+		if (slot == NONE) {
+			return null;
+		}
+		int entry = table[slot] - 1;
+		if (isExpired(entry, System.currentTimeMillis())) {
+			removeEntry(slot, entry);
+			return null;
+		}
+		moveToTail(entry);
+		return (V) values[entry];
+	}
+
+	public boolean containsKey(int key) {
+		int slot = findSlot(key);
+		return slot != NONE && !isExpired(table[slot] - 1, System.currentTimeMillis());
+	}
+
+	/**
+	 * Adds or replaces the value for the key, renewing its delay, and evicts the least
+	 * recently used entry if the cache is full.
+	 *
+	 * @return the previous unexpired value for the key, or <tt>null</tt> if there was none.
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value is null");
+		}
+		long currentTimeMillis = System.currentTimeMillis();
+		int slot = findSlot(key);
+		if (slot != NONE) {
+			int entry = table[slot] - 1;
+			V previousValue = isExpired(entry, currentTimeMillis) ? null : (V) values[entry];
+			values[entry] = value;
+			renew(entry, currentTimeMillis);
+			moveToTail(entry);
+			return previousValue;
+		}
+
+		if (size == maxCapacity) {
+			removeEntry(findSlot(keys[head]), head);
+		}
+		int entry = free;
+		free = next[entry];
+		keys[entry] = key;
+		values[entry] = value;
+		renew(entry, currentTimeMillis);
+		linkTail(entry);
+		table[emptySlot(key)] = entry + 1;
+		size++;
+		return null;
+	}
+
+	/**
+	 * @return the removed unexpired value, or <tt>null</tt> if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = findSlot(key);
+		if (slot == NONE) {
+			return null;
+		}
+		int entry = table[slot] - 1;
+		V value = isExpired(entry, System.currentTimeMillis()) ? null : (V) values[entry];
+		removeEntry(slot, entry);
+		return value;
+	}
+
+	/**
+	 * @return the number of entries, including expired entries that have not been reclaimed yet.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+
+	public void clear() {
+		Arrays.fill(table, 0);
+		Arrays.fill(values, null);
+		head = NONE;
+		tail = NONE;
+		size = 0;
+		initFreeList();
+	}
+
+	/**
+	 * Removes every expired entry.
+	 */
+	public void cleanup() {
+		if (expiringTimes == null) {
+			return;
+		}
+		long currentTimeMillis = System.currentTimeMillis();
+		int entry = head;
+		while (entry != NONE) {
+			int nextEntry = next[entry];
+			if (isExpired(entry, currentTimeMillis)) {
+				removeEntry(findSlot(keys[entry]), entry);
+			}
+			entry = nextEntry;
+		}
+	}
+
+	/**
+	 * @return the slot holding the key, or {@link #NONE} if the key is absent.
+	 */
+	private int findSlot(int key) {
+		for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+			int entry = table[slot];
+			if (entry == 0) {
+				return NONE;
+			}
+			if (keys[entry - 1] == key) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * @return the first empty slot in the probe sequence of an absent key.
+	 */
+	private int emptySlot(int key) {
+		int slot = hash(key);
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int hash(int key) {
+		int hash = key * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	/**
+	 * Unlinks the entry, frees it and closes the gap in its slot's probe sequence.
+	 */
+	private void removeEntry(int slot, int entry) {
+		unlink(entry);
+		values[entry] = null;
+		next[entry] = free;
+		free = entry;
+		size--;
+		deleteSlot(slot);
+	}
+
+	/**
+	 * Empties the slot by shifting back the following entries of the probe sequence that
+	 * may not be found across the gap, so no tombstones are needed.
+	 */
+	private void deleteSlot(int slot) {
+		int gap = slot;
+		for (int current = (gap + 1) & mask; table[current] != 0; current = (current + 1) & mask) {
+			int home = hash(keys[table[current] - 1]);
+			// the entry may fill the gap unless its home slot lies cyclically in (gap, current]
+			if (((current - home) & mask) >= ((current - gap) & mask)) {
+				table[gap] = table[current];
+				gap = current;
+			}
+		}
+		table[gap] = 0;
+	}
+
+	private boolean isExpired(int entry, long currentTimeMillis) {
+		return expiringTimes != null && expiringTimes[entry] <= currentTimeMillis;
+	}
+
+	private void renew(int entry, long currentTimeMillis) {
+		if (expiringTimes != null) {
+			expiringTimes[entry] = currentTimeMillis + delay;
+		}
+	}
+
+	private void moveToTail(int entry) {
+		if (entry != tail) {
+			unlink(entry);
+			linkTail(entry);
+		}
+	}
+
+	private void linkTail(int entry) {
+		previous[entry] = tail;
+		next[entry] = NONE;
+		if (tail == NONE) {
+			head = entry;
+		}
+		else {
+			next[tail] = entry;
+		}
+		tail = entry;
+	}
+
+	private void unlink(int entry) {
+		int previousEntry = previous[entry];
+		int nextEntry = next[entry];
+		if (previousEntry == NONE) {
+			head = nextEntry;
+		}
+		else {
+			next[previousEntry] = nextEntry;
+		}
+		if (nextEntry == NONE) {
+			tail = previousEntry;
+		}
+		else {
+			previous[nextEntry] = previousEntry;
+		}
+	}
+
+	/**
+	 * Chains every entry into the free list through the next links.
+	 */
+	private void initFreeList() {
+		for (int i=0; i<maxCapacity; i++) {
+			next[i] = i + 1;
+		}
+		next[maxCapacity - 1] = NONE;
+		free = 0;
+	}
+}
@@ -0,0 +1,143 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of durations in nanoseconds.
+ * <p>
+ * Each duration is counted in the bucket of its highest set bit, so recording is a single
+ * {@link LongAdder} increment and percentiles are accurate to within a factor of two, which
+ * is enough to tell a 100 microsecond load from a 10 millisecond one. Concurrent recordings
+ * do not contend on a shared counter.
+ */
+public final class LatencyHistogram {
+
+	/** 64 - one bucket per bit of a long */
+	private static final int BUCKET_COUNT = Long.SIZE;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram() {
+		for (int i=0; i<BUCKET_COUNT; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param nanos the duration to record. Negative durations are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long duration = Math.max(0, nanos);
+		buckets[bucket(duration)].increment();
+		total.add(duration);
+		max.accumulate(duration);
+	}
+
+	/**
+	 * @return the durations recorded so far. Durations recorded concurrently may be only
+	 * 		   partially included.
+	 */
+	public Snapshot snapshot() {
+		long[] counts = new long[BUCKET_COUNT];
+		for (int i=0; i<BUCKET_COUNT; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return new Snapshot(counts, total.sum(), max.get());
+	}
+
+	public void reset() {
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		total.reset();
+		max.reset();
+	}
+
+	/**
+	 * @return the number of significant bits of the duration, so bucket i holds the
+	 * 		   durations from 2^(i-1) to 2^i - 1 and bucket 0 holds the durations of 0.
+	 */
+	private static int bucket(long duration) {
+		return Long.SIZE - Long.numberOfLeadingZeros(duration);
+	}
+
+	/**
+	 * An immutable copy of the recorded durations.
+	 */
+	public static final class Snapshot {
+
+		static final Snapshot EMPTY = new Snapshot(new long[BUCKET_COUNT], 0, 0);
+
+		private final long[] counts;
+		private final long count;
+		private final long total;
+		private final long max;
+
+		private Snapshot(long[] counts, long total, long max) {
+			this.counts = counts;
+			long count = 0;
+			for (long bucketCount : counts) {
+				count += bucketCount;
+			}
+			this.count = count;
+			this.total = total;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the sum of the durations in nanoseconds.
+		 */
+		public long getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return the longest duration in nanoseconds.
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * @return the mean duration in nanoseconds, or 0 if there are none.
+		 */
+		public double getMean() {
+			return (count == 0) ? 0 : (double) total / count;
+		}
+
+		/**
+		 * @param percentile between 0 and 100, for example 99.9
+		 * @return an upper bound in nanoseconds of the durations below the percentile, never
+		 * 		   more than twice the actual value nor more than the maximum, or 0 if there are none.
+		 * @throws IllegalArgumentException if the percentile is not between 0 and 100
+		 */
+		public long getPercentile(double percentile) {
+			if (!(percentile >= 0 && percentile <= 100)) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100");
+			}
+			long rank = (long) Math.ceil(count * percentile / 100);
+			long seen = 0;
+			for (int i=0; i<BUCKET_COUNT; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) {
+					// (1L << 63) - 1 overflows to Long.MAX_VALUE, the bound of the last bucket
+					return Math.min((1L << i) - 1, max);
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + count + ", mean=" + (long) getMean() + "ns, p50=" + getPercentile(50)
+					+ "ns, p99=" + getPercentile(99) + "ns, max=" + max + "ns";
+		}
+	}
+}
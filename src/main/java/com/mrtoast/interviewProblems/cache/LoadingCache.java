@@ -0,0 +1,359 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Computes missing values of an {@link ExpiringCache} with a loader function.
+ * <p>
+ * Concurrent misses on the same key share a single in-flight load: the first caller
+ * loads the value and every other caller waits for its result instead of recomputing it,
+ * so an expiring hot key does not send a burst of identical requests to the backend.
+ * Loads may run on the calling thread or asynchronously on an {@link Executor}.
+ * <p>
+ * With a refresh ratio below 1, a read of an entry that is older than that fraction of its
+ * delay still returns the cached value immediately, and also starts a single background
+ * reload on the executor. Keys that are read continuously are then replaced before they
+ * expire and never cause a miss.
+ * <p>
+ * The time taken by each load is recorded in the statistics of the {@link ExpiringCache}.
+ */
+public class LoadingCache<K, V> {
+
+	/** 1.0 - the default refresh ratio, which never refreshes entries before they expire */
+	static final double DEFAULT_REFRESH_RATIO = 1.0;
+
+	private final ExpiringCache<K, V> cache;
+	private final Executor executor;
+	private final double refreshRatio;
+	private final ConcurrentMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+	/**
+	 * @param cache the cache holding the loaded values
+	 * @param executor runs the loads started by {@link #getAsync(Object, Function)}
+	 */
+	public LoadingCache(ExpiringCache<K, V> cache, Executor executor) {
+		this(cache, executor, DEFAULT_REFRESH_RATIO);
+	}
+
+	/**
+	 * @param cache the cache holding the loaded values
+	 * @param executor runs the asynchronous loads and the background refreshes
+	 * @param refreshRatio the fraction of an entry's delay after which a read also reloads it
+	 * 		  in the background, for example 0.8. A ratio of 1 disables refreshing.
+	 * @throws IllegalArgumentException if the refresh ratio is not greater than 0 and at most 1
+	 */
+	public LoadingCache(ExpiringCache<K, V> cache, Executor executor, double refreshRatio) {
+		if (!(refreshRatio > 0 && refreshRatio <= 1)) {
+			throw new IllegalArgumentException("Refresh ratio must be greater than 0 and at most 1");
+		}
+		this.cache = cache;
+		this.executor = executor;
+		this.refreshRatio = refreshRatio;
+	}
+
+	/**
+	 * Returns the cached value for the key, loading it on the calling thread if it is missing.
+	 * If another thread is already loading the key, waits for that load instead.
+	 *
+	 * @param key K
+	 * @param loader computes the value of a missing key. A <tt>null</tt> result is returned
+	 * 		  but not cached.
+	 * @return the cached or loaded value
+	 * @throws RuntimeException any exception thrown by the loader, including to waiting callers
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = getPresent(key, loader);
+		if (value != null) {
+			return value;
+		}
+		CompletableFuture<V> load = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = loads.putIfAbsent(key, load);
+		if (inFlight != null) {
+			return join(inFlight);
+		}
+		load(key, loader, load);
+		return join(load);
+	}
+
+	/**
+	 * Returns the cached value for the key, loading it on the executor if it is missing.
+	 * If the key is already being loaded, the returned future completes with that load.
+	 *
+	 * @param key K
+	 * @param loader computes the value of a missing key
+	 * @return a future completed with the cached or loaded value, or exceptionally if the
+	 * 		   loader fails or the executor rejects the load
+	 */
+	public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader) {
+		V value = getPresent(key, loader);
+		if (value != null) {
+			return CompletableFuture.completedFuture(value);
+		}
+		CompletableFuture<V> load = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = loads.putIfAbsent(key, load);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		try {
+			executor.execute(() -> load(key, loader, load));
+		}
+		catch (RejectedExecutionException e) {
+			loads.remove(key, load);
+			load.completeExceptionally(e);
+		}
+		return load;
+	}
+
+	/**
+	 * Returns the values for the keys, loading the missing ones on the calling thread.
+	 * Keys already being loaded by other threads are waited for rather than reloaded.
+	 *
+	 * @param keys the keys to look up
+	 * @param loader computes the value of a missing key
+	 * @return the non-null values, in the iteration order of the keys
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys, Function<? super K, ? extends V> loader) {
+		Map<K, V> values = new LinkedHashMap<>();
+		for (K key : keys) {
+			V value = get(key, loader);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the values for the keys, looking up the cached ones under a single lock and
+	 * loading all the missing ones with one call to the batch loader on the calling thread.
+	 * Keys already being loaded by other threads are waited for rather than reloaded, and
+	 * other callers wait for the keys of this batch. Cached values are not refreshed ahead.
+	 *
+	 * @param keys the keys to look up
+	 * @param batchLoader computes the values of the missing keys, which it receives as an
+	 * 		  unmodifiable set. Keys without a value in the returned map are not cached.
+	 * @return the non-null values, in the iteration order of the keys
+	 * @throws RuntimeException any exception thrown by the batch loader
+	 */
+	public Map<K, V> getAllBatched(Iterable<? extends K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+		// the keys are iterated once, since an Iterable need not support a second pass
+		Set<K> uniqueKeys = new LinkedHashSet<>();
+		for (K key : keys) {
+			uniqueKeys.add(key);
+		}
+		Map<K, ExpiringEntry<K, V>> present = cache.getEntries(uniqueKeys);
+		Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+		Map<K, CompletableFuture<V>> inFlight = new LinkedHashMap<>();
+		for (K key : uniqueKeys) {
+			if (present.containsKey(key)) {
+				continue;
+			}
+			CompletableFuture<V> load = new CompletableFuture<>();
+			CompletableFuture<V> otherLoad = loads.putIfAbsent(key, load);
+			if (otherLoad == null) {
+				owned.put(key, load);
+			}
+			else {
+				inFlight.put(key, otherLoad);
+			}
+		}
+		if (!owned.isEmpty()) {
+			loadAll(owned, batchLoader);
+		}
+
+		Map<K, V> values = new LinkedHashMap<>();
+		for (K key : uniqueKeys) {
+			ExpiringEntry<K, V> entry = present.get(key);
+			V value;
+			if (entry != null) {
+				value = entry.getValue();
+			}
+			else {
+				CompletableFuture<V> load = owned.get(key);
+				value = join((load != null) ? load : inFlight.get(key));
+			}
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Removes the cached value for the key. A load already in flight is not cancelled.
+	 */
+	public void invalidate(K key) {
+		cache.remove(key);
+	}
+
+	/**
+	 * @return the cache holding the loaded values.
+	 */
+	public ExpiringCache<K, V> getCache() {
+		return cache;
+	}
+
+	/**
+	 * @return the cached value for the key, or <tt>null</tt> on a miss. A hit that is past the
+	 * 		   refresh point also starts a background reload unless one is already in flight.
+	 */
+	private V getPresent(K key, Function<? super K, ? extends V> loader) {
+		ExpiringEntry<K, V> entry = cache.getEntry(key);
+		if (entry == null) {
+			return null;
+		}
+		V value = entry.getValue();
+		if (value != null && refreshRatio < 1 && System.currentTimeMillis() >= refreshTime(entry)) {
+			refresh(key, loader);
+		}
+		return value;
+	}
+
+	private long refreshTime(ExpiringEntry<K, V> entry) {
+		return entry.getExpiringTime() - (long) (entry.getDelayMillis() * (1 - refreshRatio));
+	}
+
+	/**
+	 * Reloads the key on the executor. Readers keep getting the cached value until the reload
+	 * replaces it; if the reload fails the cached value is kept until it expires.
+	 */
+	private void refresh(K key, Function<? super K, ? extends V> loader) {
+		CompletableFuture<V> reload = new CompletableFuture<>();
+		if (loads.putIfAbsent(key, reload) != null) {
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					V value = apply(key, loader);
+					if (value != null) {
+						cache.put(key, value);
+					}
+					reload.complete(value);
+				}
+				catch (Throwable t) {
+					reload.completeExceptionally(t);
+				}
+				finally {
+					loads.remove(key, reload);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			loads.remove(key, reload);
+			reload.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Loads the value for a key whose load has been registered, completing the load's future.
+	 * The value is cached before the load is unregistered, so a caller arriving in between
+	 * either joins the load or finds the cached value.
+	 */
+	private void load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> load) {
+		try {
+			// another thread may have cached the value after this caller's miss
+			ExpiringEntry<K, V> entry = cache.getEntry(key, false);
+			V value = (entry == null) ? null : entry.getValue();
+			if (value == null) {
+				value = apply(key, loader);
+				if (value != null) {
+					cache.put(key, value);
+				}
+			}
+			load.complete(value);
+		}
+		catch (Throwable t) {
+			load.completeExceptionally(t);
+		}
+		finally {
+			loads.remove(key, load);
+		}
+	}
+
+	/**
+	 * Loads the registered keys with one call to the batch loader, caches the values in one
+	 * batch and completes the keys' futures.
+	 */
+	private void loadAll(Map<K, CompletableFuture<V>> owned,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> batchLoader) {
+		StatsRecorder statsRecorder = cache.getStatsRecorder();
+		long startTime = System.nanoTime();
+		try {
+			Map<? extends K, ? extends V> loaded = batchLoader.apply(Collections.unmodifiableSet(owned.keySet()));
+			statsRecorder.recordLoadSuccess(System.nanoTime() - startTime);
+			Map<K, V> values = new LinkedHashMap<>();
+			if (loaded != null) {
+				for (K key : owned.keySet()) {
+					V value = loaded.get(key);
+					if (value != null) {
+						values.put(key, value);
+					}
+				}
+			}
+			cache.putAll(values);
+			for (Map.Entry<K, CompletableFuture<V>> load : owned.entrySet()) {
+				load.getValue().complete(values.get(load.getKey()));
+			}
+		}
+		catch (Throwable t) {
+			statsRecorder.recordLoadFailure(System.nanoTime() - startTime);
+			for (CompletableFuture<V> load : owned.values()) {
+				load.completeExceptionally(t);
+			}
+		}
+		finally {
+			for (Map.Entry<K, CompletableFuture<V>> load : owned.entrySet()) {
+				loads.remove(load.getKey(), load.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Calls the loader, recording the time it took in the cache's statistics.
+	 */
+	private V apply(K key, Function<? super K, ? extends V> loader) {
+		StatsRecorder statsRecorder = cache.getStatsRecorder();
+		long startTime = System.nanoTime();
+		try {
+			V value = loader.apply(key);
+			statsRecorder.recordLoadSuccess(System.nanoTime() - startTime);
+			return value;
+		}
+		catch (RuntimeException | Error e) {
+			statsRecorder.recordLoadFailure(System.nanoTime() - startTime);
+			throw e;
+		}
+	}
+
+	/**
+	 * Waits for the load, rethrowing the loader's exception rather than its wrapper.
+	 */
+	private static <V> V join(CompletableFuture<V> load) {
+		try {
+			return load.join();
+		}
+		catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,249 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An LRU cache that stores its values outside the Java heap.
+ * <p>
+ * Values are serialized into chunks of direct memory handed out by a {@link SlabAllocator},
+ * while the on-heap index is a {@link Cache} that maps each key to a small node holding the
+ * address of its chunk. The garbage collector therefore only sees the keys and one node per
+ * entry, however large the values are, which keeps GC pauses flat for caches of many gigabytes.
+ * <p>
+ * The cache is bounded by both <tt>maxCapacity</tt> entries and <tt>maxMemory</tt> bytes of
+ * slabs. When a value needs a new slab and the memory limit has been reached, the least
+ * recently used entry of the value's size class is evicted, since its chunk can be reused at
+ * once. If the size class holds no entries, the entries sharing a slab with the least recently
+ * used entry are evicted instead, which frees that slab, so a single put never evicts more
+ * than one slab's worth of entries. The nodes are threaded into an LRU list per size class
+ * and recorded by chunk in an array per slab, so neither eviction scans the index. Every read
+ * deserializes a new copy of the value.
+ */
+public class OffHeapCache<K, V> {
+
+	/** 1 MB - the default slab size, which is also the largest value that can be stored */
+	public static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+	private final Serializer<V> serializer;
+	private final SlabAllocator allocator;
+	private final Cache<K, Node<K>> index;
+	/** the sentinel of each size class's LRU list, eldest first */
+	private final Node<K>[] sizeClasses;
+	/** the node stored in each chunk of each slab, indexed by slab id and chunk index */
+	private Node<K>[][] slabNodes;
+
+	/**
+	 * @param maxCapacity the maximum number of entries
+	 * @param maxMemory the maximum number of bytes of direct memory to allocate
+	 * @param serializer converts the values to and from bytes
+	 */
+	public OffHeapCache(int maxCapacity, long maxMemory, Serializer<V> serializer) {
+		this(maxCapacity, maxMemory, DEFAULT_SLAB_SIZE, serializer);
+	}
+
+	/**
+	 * @param maxCapacity the maximum number of entries
+	 * @param maxMemory the maximum number of bytes of direct memory to allocate
+	 * @param slabSize the size in bytes of each slab, a power of two of at least 64 bytes
+	 * @param serializer converts the values to and from bytes
+	 * @throws IllegalArgumentException if the slab size is not a power of two of at least
+	 * 		   64 bytes or the maximum memory is smaller than one slab
+	 */
+	@SuppressWarnings("unchecked")
+	public OffHeapCache(int maxCapacity, long maxMemory, int slabSize, Serializer<V> serializer) {
+		this.serializer = serializer;
+		this.allocator = new SlabAllocator(slabSize, maxMemory);
+		this.index = new Cache<K, Node<K>>(Math.min(Cache.DEFAULT_INITIAL_CAPACITY, maxCapacity),
+				Cache.DEFAULT_LOAD_FACTOR, Cache.DEFAULT_ACCESS_ORDER, maxCapacity) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Node<K>> eldest) {
+				if (super.removeEldestEntry(eldest)) {
+					release(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+		this.sizeClasses = new Node[allocator.getSizeClassCount()];
+		for (int i=0; i<sizeClasses.length; i++) {
+			sizeClasses[i] = new Node<>(null, SlabAllocator.NO_ADDRESS);
+		}
+		this.slabNodes = new Node[16][];
+	}
+
+	/**
+	 * @return a copy of the value for the key, or <tt>null</tt> if there is none.
+	 */
+	public synchronized V get(K key) {
+		Node<K> node = index.get(key);
+		if (node == null) {
+			return null;
+		}
+		node.unlink();
+		node.linkLast(sizeClasses[allocator.sizeClassOf(node.address)]);
+		return serializer.deserialize(allocator.read(node.address));
+	}
+
+	public synchronized boolean containsKey(K key) {
+		return index.containsKey(key);
+	}
+
+	/**
+	 * Serializes the value into direct memory, replacing any previous value for the key. The
+	 * previous value is only released once the new one has been stored.
+	 *
+	 * @throws IllegalArgumentException if the serialized value is larger than the slab size
+	 */
+	public synchronized void put(K key, V value) {
+		byte[] record = serializer.serialize(value);
+		if (record.length > allocator.getMaxRecordSize()) {
+			throw new IllegalArgumentException("Value of " + record.length + " bytes exceeds the slab size");
+		}
+		long address = allocator.allocate(record);
+		if (address == SlabAllocator.NO_ADDRESS) {
+			address = allocateByEvicting(record);
+		}
+		Node<K> node = new Node<>(key, address);
+		track(node);
+		Node<K> previous = index.put(key, node);
+		if (previous != null) {
+			release(previous);
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entry of the record's size class, or else every entry in
+	 * the slab of the least recently used entry, and stores the record in the memory freed.
+	 */
+	private long allocateByEvicting(byte[] record) {
+		Node<K> sentinel = sizeClasses[allocator.sizeClassOfRecord(record.length)];
+		if (sentinel.next != sentinel) {
+			evict(sentinel.next);
+			return allocator.allocate(record);
+		}
+
+		if (index.isEmpty()) {
+			throw new IllegalStateException("Maximum memory reached");
+		}
+		Node<K>[] nodes = slabNodes[SlabAllocator.slabIdOf(index.values().iterator().next().address)];
+		for (int i=0; i<nodes.length; i++) {
+			if (nodes[i] != null) {
+				evict(nodes[i]);
+			}
+		}
+		long address = allocator.allocate(record);
+		if (address == SlabAllocator.NO_ADDRESS) {
+			throw new IllegalStateException("Maximum memory reached");
+		}
+		return address;
+	}
+
+	public synchronized V remove(K key) {
+		Node<K> node = index.remove(key);
+		if (node == null) {
+			return null;
+		}
+		V value = serializer.deserialize(allocator.read(node.address));
+		release(node);
+		return value;
+	}
+
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * Removes every entry and releases all slabs.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized void clear() {
+		index.clear();
+		for (Node<K> sentinel : sizeClasses) {
+			sentinel.previous = sentinel;
+			sentinel.next = sentinel;
+		}
+		slabNodes = new Node[16][];
+		allocator.clear();
+	}
+
+	/**
+	 * @return the number of bytes of direct memory allocated in slabs.
+	 */
+	public synchronized long getAllocatedBytes() {
+		return allocator.getAllocatedBytes();
+	}
+
+	/**
+	 * @return the number of bytes of direct memory in chunks that hold values.
+	 */
+	public synchronized long getUsedBytes() {
+		return allocator.getUsedBytes();
+	}
+
+	/**
+	 * Links the node last in its size class's list and records it in its slab's chunk array.
+	 */
+	@SuppressWarnings("unchecked")
+	private void track(Node<K> node) {
+		node.linkLast(sizeClasses[allocator.sizeClassOf(node.address)]);
+		int slabId = SlabAllocator.slabIdOf(node.address);
+		if (slabId >= slabNodes.length) {
+			slabNodes = Arrays.copyOf(slabNodes, Math.max(2 * slabNodes.length, slabId + 1));
+		}
+		int chunkCount = allocator.chunkCountOf(node.address);
+		// a slab id is only reused once every chunk of its previous slab has been released
+		if (slabNodes[slabId] == null || slabNodes[slabId].length != chunkCount) {
+			slabNodes[slabId] = new Node[chunkCount];
+		}
+		slabNodes[slabId][SlabAllocator.chunkIndexOf(node.address)] = node;
+	}
+
+	/**
+	 * Removes the node from the index and releases its chunk.
+	 */
+	private void evict(Node<K> node) {
+		index.remove(node.key);
+		release(node);
+	}
+
+	/**
+	 * Unlinks a node that is no longer in the index and frees its chunk.
+	 */
+	private void release(Node<K> node) {
+		node.unlink();
+		slabNodes[SlabAllocator.slabIdOf(node.address)][SlabAllocator.chunkIndexOf(node.address)] = null;
+		allocator.free(node.address);
+	}
+
+	/**
+	 * The address of an entry's chunk, linked into the LRU list of the chunk's size class.
+	 */
+	private static final class Node<K> {
+		private final K key;
+		private final long address;
+		private Node<K> previous = this;
+		private Node<K> next = this;
+
+		private Node(K key, long address) {
+			this.key = key;
+			this.address = address;
+		}
+
+		private void linkLast(Node<K> sentinel) {
+			previous = sentinel.previous;
+			next = sentinel;
+			sentinel.previous.next = this;
+			sentinel.previous = this;
+		}
+
+		private void unlink() {
+			previous.next = next;
+			next.previous = previous;
+			previous = this;
+			next = this;
+		}
+	}
+}
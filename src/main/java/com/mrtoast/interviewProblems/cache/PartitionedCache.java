@@ -0,0 +1,374 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache whose entries are partitioned across several nodes, each usually a separate JVM,
+ * so that the nodes share one copy of each entry instead of each caching its own.
+ * <p>
+ * Every key is owned by one node of a {@link ConsistentHashRing} and its entry is stored in
+ * the owner's {@link ConcurrentCache}. Other nodes read and write it through the owner over a
+ * {@link Transport}, and keep the values they read in a small near cache, an
+ * {@link ExpiringCache}, so that hot keys are read without a round trip. A node that writes a
+ * key drops it from its own near cache both before and after the owner applies the write, so
+ * a read of the old value racing the write cannot outlive it and the node always reads its
+ * own writes. The owner then sends an invalidation to every other node in the background,
+ * one sender per node, so a slow or unreachable node does not delay the write; the other nodes
+ * read the new value once their invalidation arrives. Invalidations lost to an unreachable
+ * node are made up for by the near cache's delay, which bounds how long a stale value can be
+ * read.
+ * <p>
+ * Every node must be created with the same list of nodes. Membership is fixed: entries are not
+ * moved between nodes, so a node that joins or leaves needs a fresh cluster.
+ */
+public class PartitionedCache<K, V> implements Closeable {
+	
+	/** 1024 - the default maximum number of entries in the near cache */
+	static final int DEFAULT_NEAR_CACHE_MAX_SIZE = 1024;
+	
+	/** 1000 - the default time in milliseconds a value is kept in the near cache */
+	static final long DEFAULT_NEAR_CACHE_DELAY = 1000;
+	
+	private static final byte GET = 1;
+	private static final byte PUT = 2;
+	private static final byte REMOVE = 3;
+	private static final byte INVALIDATE = 4;
+	
+	private static final byte[] ABSENT = new byte[0];
+	
+	private final Transport transport;
+	private final String localNode;
+	private final ConsistentHashRing ring;
+	private final ConcurrentCache<K, V> localCache;
+	private final ExpiringCache<K, V> nearCache;
+	private final Serializer<K> keySerializer;
+	private final Serializer<V> valueSerializer;
+	
+	/**
+	 * incremented by every invalidation, so a read racing one does not fill the near cache;
+	 * written and checked before a fill while holding the near cache's monitor
+	 */
+	private final AtomicLong invalidationCount = new AtomicLong();
+	
+	/** sends the invalidations to each other node */
+	private final List<InvalidationSender> invalidationSenders = new ArrayList<>();
+	private final ExecutorService invalidationExecutor = Executors.newCachedThreadPool(
+			new ThreadPoolExecutorImpl.ThreadFactoryImpl("InvalidationSender", true));
+	
+	/**
+	 * @see #PartitionedCache(Transport, Collection, int, int, long, Serializer, Serializer)
+	 */
+	public PartitionedCache(Transport transport, Collection<String> nodes, int maxCapacity,
+			Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+		this(transport, nodes, maxCapacity, DEFAULT_NEAR_CACHE_MAX_SIZE, DEFAULT_NEAR_CACHE_DELAY,
+				keySerializer, valueSerializer);
+	}
+	
+	/**
+	 * @param transport connects this node to the others
+	 * @param nodes every node of the cluster, including this one
+	 * @param maxCapacity the maximum number of entries owned by this node
+	 * @param nearCacheMaxSize the maximum number of entries owned by other nodes kept by this one
+	 * @param nearCacheDelay the time in milliseconds an entry owned by another node is kept
+	 * @param keySerializer converts the keys to and from bytes
+	 * @param valueSerializer converts the values to and from bytes
+	 * @throws IllegalArgumentException if the nodes do not include the transport's node
+	 */
+	public PartitionedCache(Transport transport, Collection<String> nodes, int maxCapacity,
+			int nearCacheMaxSize, long nearCacheDelay, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+		this.localNode = transport.getLocalNode();
+		if (!nodes.contains(localNode)) {
+			throw new IllegalArgumentException("Nodes do not include the local node " + localNode);
+		}
+		this.transport = transport;
+		this.ring = new ConsistentHashRing(nodes);
+		this.localCache = new ConcurrentCache<>(Math.min(Cache.DEFAULT_INITIAL_CAPACITY, maxCapacity),
+				Cache.DEFAULT_LOAD_FACTOR, Cache.DEFAULT_ACCESS_ORDER, maxCapacity,
+				ConcurrentCache.DEFAULT_CONCURRENCY_LEVEL);
+		this.nearCache = new ExpiringCache<>(nearCacheDelay, nearCacheMaxSize);
+		this.keySerializer = keySerializer;
+		this.valueSerializer = valueSerializer;
+		for (String node : nodes) {
+			if (!node.equals(localNode)) {
+				invalidationSenders.add(new InvalidationSender(node));
+			}
+		}
+	}
+	
+	/**
+	 * Starts answering the requests of the other nodes. Every node must be started before
+	 * the cluster is used.
+	 * 
+	 * @throws IOException if the transport cannot accept requests
+	 */
+	public void start() throws IOException {
+		transport.start(this::handle);
+	}
+	
+	/**
+	 * @return the value for the key, or <tt>null</tt> if there is none.
+	 * @throws UncheckedIOException if the owner of the key cannot be reached
+	 */
+	public V get(K key) {
+		String owner = ring.getOwner(key);
+		if (owner.equals(localNode)) {
+			return localCache.get(key);
+		}
+		V value = nearCache.get(key);
+		if (value != null) {
+			return value;
+		}
+		long invalidations = invalidationCount.get();
+		ByteBuffer response = ByteBuffer.wrap(send(owner, request(GET, key, null)));
+		value = readValue(response);
+		if (value != null) {
+			// invalidate holds the same monitor, so it cannot run between the check and the fill
+			synchronized (nearCache) {
+				if (invalidationCount.get() == invalidations) {
+					nearCache.put(key, value);
+				}
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * Adds or replaces the value for the key on its owner, which then invalidates the key in
+	 * the near cache of every other node in the background.
+	 * 
+	 * @throws UncheckedIOException if the owner of the key cannot be reached
+	 * @throws IllegalArgumentException if the value is null
+	 */
+	public void put(K key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value is null");
+		}
+		String owner = ring.getOwner(key);
+		if (owner.equals(localNode)) {
+			localCache.put(key, value);
+			broadcastInvalidation(key);
+		}
+		else {
+			invalidate(key);
+			try {
+				send(owner, request(PUT, key, value));
+			}
+			finally {
+				// a read on this node may have fetched the old value while the put was in flight
+				invalidate(key);
+			}
+		}
+	}
+	
+	/**
+	 * Removes the value for the key from its owner, which then invalidates the key in the near
+	 * cache of every other node in the background.
+	 * 
+	 * @return the removed value, or <tt>null</tt> if there was none.
+	 * @throws UncheckedIOException if the owner of the key cannot be reached
+	 */
+	public V remove(K key) {
+		String owner = ring.getOwner(key);
+		if (owner.equals(localNode)) {
+			V value = localCache.remove(key);
+			broadcastInvalidation(key);
+			return value;
+		}
+		invalidate(key);
+		try {
+			return readValue(ByteBuffer.wrap(send(owner, request(REMOVE, key, null))));
+		}
+		finally {
+			invalidate(key);
+		}
+	}
+	
+	/**
+	 * @return the node owning the key.
+	 */
+	public String getOwner(K key) {
+		return ring.getOwner(key);
+	}
+	
+	public String getLocalNode() {
+		return localNode;
+	}
+	
+	/**
+	 * @return the number of entries owned by this node.
+	 */
+	public int getLocalSize() {
+		return localCache.size();
+	}
+	
+	/**
+	 * @return the number of entries owned by other nodes kept by this one, including expired
+	 * 		   entries that have not been reclaimed yet.
+	 */
+	public int getNearCacheSize() {
+		return nearCache.size();
+	}
+	
+	/**
+	 * Stops answering requests and sending invalidations, and closes the transport.
+	 */
+	@Override
+	public void close() throws IOException {
+		invalidationExecutor.shutdown();
+		transport.close();
+	}
+	
+	/**
+	 * Answers a request of another node.
+	 * <pre>
+	 * request   byte type, int keyLength, key [, value]
+	 * response  value, or no bytes for none
+	 * </pre>
+	 */
+	private byte[] handle(byte[] message) {
+		ByteBuffer request = ByteBuffer.wrap(message);
+		byte type = request.get();
+		int keyLength = request.getInt();
+		ByteBuffer keyBuffer = request.slice();
+		keyBuffer.limit(keyLength);
+		K key = keySerializer.deserialize(keyBuffer);
+		request.position(request.position() + keyLength);
+		switch (type) {
+			case GET:
+				return writeValue(localCache.get(key));
+			case PUT:
+				localCache.put(key, valueSerializer.deserialize(request));
+				broadcastInvalidation(key);
+				return ABSENT;
+			case REMOVE:
+				V value = localCache.remove(key);
+				broadcastInvalidation(key);
+				return writeValue(value);
+			case INVALIDATE:
+				invalidate(key);
+				return ABSENT;
+			default:
+				throw new IllegalArgumentException("Unknown request type: " + type);
+		}
+	}
+	
+	private void invalidate(K key) {
+		synchronized (nearCache) {
+			invalidationCount.incrementAndGet();
+			nearCache.remove(key);
+		}
+	}
+	
+	/**
+	 * Queues the invalidation of the key for every other node without waiting for it to be sent.
+	 */
+	private void broadcastInvalidation(K key) {
+		if (invalidationSenders.isEmpty()) {
+			return;
+		}
+		byte[] request = request(INVALIDATE, key, null);
+		for (InvalidationSender sender : invalidationSenders) {
+			sender.send(request);
+		}
+	}
+	
+	private byte[] send(String node, byte[] request) {
+		try {
+			return transport.send(node, request);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Node " + node + " cannot be reached", e);
+		}
+	}
+	
+	private byte[] request(byte type, K key, V value) {
+		byte[] keyBytes = keySerializer.serialize(key);
+		byte[] valueBytes = (value == null) ? ABSENT : valueSerializer.serialize(value);
+		return ByteBuffer.allocate(1 + Integer.BYTES + keyBytes.length + valueBytes.length)
+				.put(type)
+				.putInt(keyBytes.length)
+				.put(keyBytes)
+				.put(valueBytes)
+				.array();
+	}
+	
+	/**
+	 * Values are written with a leading byte so that an empty value differs from no value.
+	 */
+	private byte[] writeValue(V value) {
+		if (value == null) {
+			return ABSENT;
+		}
+		byte[] valueBytes = valueSerializer.serialize(value);
+		return ByteBuffer.allocate(1 + valueBytes.length).put((byte) 1).put(valueBytes).array();
+	}
+	
+	private V readValue(ByteBuffer response) {
+		if (!response.hasRemaining()) {
+			return null;
+		}
+		response.get();
+		return valueSerializer.deserialize(response);
+	}
+	
+	/**
+	 * Sends the invalidations for one node in order. The first invalidation of a batch submits
+	 * a task and those queued while it is pending or running join its batch, so a node has at
+	 * most one thread sending to it however many writes there are.
+	 */
+	private final class InvalidationSender implements Runnable {
+		private final String node;
+		private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean isScheduled = new AtomicBoolean();
+		
+		InvalidationSender(String node) {
+			this.node = node;
+		}
+		
+		void send(byte[] request) {
+			pending.add(request);
+			if (isScheduled.compareAndSet(false, true)) {
+				try {
+					invalidationExecutor.execute(this);
+				}
+				catch (RejectedExecutionException e) {
+					// closed
+					pending.clear();
+					isScheduled.set(false);
+				}
+			}
+		}
+		
+		@Override
+		public void run() {
+			do {
+				byte[] request;
+				while ((request = pending.poll()) != null) {
+					try {
+						transport.send(node, request);
+					}
+					catch (IOException e) {
+						// rather than wait out the timeout once per key, drop the batch; the stale
+						// values are bounded by the near cache delay of the unreachable node
+						pending.clear();
+					}
+				}
+				isScheduled.set(false);
+				// an invalidation queued after the last poll saw the sender still scheduled
+			} while (!pending.isEmpty() && isScheduled.compareAndSet(false, true));
+		}
+	}
+}
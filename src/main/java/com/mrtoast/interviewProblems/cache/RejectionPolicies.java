@@ -0,0 +1,146 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The policies a {@link ThreadPoolExecutorImpl} can apply to a task that arrives while every
+ * thread is busy and the queue is full, or after the executor has been shut down.
+ * <p>
+ * Whenever a policy gives up on a task it rejects it: a submitted task's future completes
+ * exceptionally with a {@link java.util.concurrent.RejectedExecutionException}, a task passed
+ * to <tt>execute</tt> makes the call throw it, and the executor's rejected count is incremented.
+ * Tasks are always rejected once the executor has been shut down.
+ */
+public final class RejectionPolicies {
+
+	private RejectionPolicies() {
+		//static utility class
+	}
+
+	/**
+	 * @return a policy that rejects the new task.
+	 */
+	public static RejectedExecutionHandler abort() {
+		return ThreadPoolExecutorImpl::reject;
+	}
+
+	/**
+	 * @return a policy that runs the new task on the thread that submitted it, which slows
+	 * 		   the submitter down to the pace of the pool instead of losing the task.
+	 */
+	public static RejectedExecutionHandler callerRuns() {
+		return (runnable, executor) -> {
+			if (executor.isShutdown()) {
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+			}
+			else {
+				runnable.run();
+			}
+		};
+	}
+
+	/**
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return a policy that blocks the submitter until the queue has room for the new task,
+	 * 		   and rejects it if the timeout passes first or the submitter is interrupted.
+	 * @throws IllegalArgumentException if the timeout is negative
+	 */
+	public static RejectedExecutionHandler block(long timeout, TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout is negative");
+		}
+		return (runnable, executor) -> {
+			if (executor.isShutdown()) {
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+				return;
+			}
+			try {
+				if (!executor.getQueue().offer(runnable, timeout, unit)) {
+					ThreadPoolExecutorImpl.reject(runnable, executor);
+				}
+				else if (executor.isShutdown() && executor.remove(runnable)) {
+					// shut down while waiting, so the task would never run
+					ThreadPoolExecutorImpl.reject(runnable, executor);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+			}
+		};
+	}
+
+	/**
+	 * @return a policy that rejects the oldest queued task to make room for the new one,
+	 * 		   favouring fresh work over work whose caller may have given up.
+	 */
+	public static RejectedExecutionHandler dropOldest() {
+		return (runnable, executor) -> {
+			if (executor.isShutdown()) {
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+				return;
+			}
+			Runnable oldest = executor.getQueue().poll();
+			if (oldest != null) {
+				ThreadPoolExecutorImpl.rejectQueued(oldest, executor);
+			}
+			executor.execute(runnable);
+		};
+	}
+
+	/**
+	 * Sheds load according to how long tasks wait rather than how many are queued. When the
+	 * queue is full, the queued tasks that have already waited longer than the target are
+	 * rejected, since their callers have likely timed out, and the new task takes their place.
+	 * If no queued task is that late the pool is keeping up with its target and the new task
+	 * is rejected instead.
+	 *
+	 * @param maxQueueWait the longest a task should wait in the queue
+	 * @param unit the unit of the wait
+	 * @return the shedding policy
+	 * @throws IllegalArgumentException if the wait is negative
+	 */
+	public static RejectedExecutionHandler adaptiveShedding(long maxQueueWait, TimeUnit unit) {
+		if (maxQueueWait < 0) {
+			throw new IllegalArgumentException("Maximum queue wait is negative");
+		}
+		long maxQueueWaitNanos = unit.toNanos(maxQueueWait);
+		return (runnable, executor) -> {
+			if (executor.isShutdown()) {
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+				return;
+			}
+			if (shedLateTasks(executor, maxQueueWaitNanos)) {
+				executor.execute(runnable);
+			}
+			else {
+				ThreadPoolExecutorImpl.reject(runnable, executor);
+			}
+		};
+	}
+
+	/**
+	 * Rejects the tasks at the head of the queue that have waited longer than the maximum.
+	 *
+	 * @return <tt>true</tt> if any task was rejected.
+	 */
+	private static boolean shedLateTasks(ThreadPoolExecutor executor, long maxQueueWaitNanos) {
+		BlockingQueue<Runnable> queue = executor.getQueue();
+		long now = System.nanoTime();
+		boolean isShed = false;
+		Runnable head;
+		while ((head = queue.peek()) instanceof ThreadPoolExecutorImpl.QueuedTask
+				&& now - ((ThreadPoolExecutorImpl.QueuedTask) head).getQueuedTime() > maxQueueWaitNanos) {
+			// a worker may take the head first, in which case the next one is examined
+			if (queue.remove(head)) {
+				ThreadPoolExecutorImpl.rejectQueued(head, executor);
+				isShed = true;
+			}
+		}
+		return isShed;
+	}
+}
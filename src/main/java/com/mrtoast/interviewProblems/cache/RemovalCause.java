@@ -0,0 +1,36 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * Why an entry was removed from a cache, as reported to a {@link RemovalListener}.
+ */
+public enum RemovalCause {
+	/**
+	 * The entry was removed by the user, through <tt>remove</tt>, <tt>invalidateAll</tt> or
+	 * <tt>clear</tt>.
+	 */
+	EXPLICIT,
+	
+	/**
+	 * The value of the entry was replaced by a <tt>put</tt>. The notification carries the
+	 * replaced value.
+	 */
+	REPLACED,
+	
+	/**
+	 * The delay of the entry had passed.
+	 */
+	EXPIRED,
+	
+	/**
+	 * The entry was evicted to keep the cache within its capacity or weight.
+	 */
+	SIZE;
+	
+	/**
+	 * @return <tt>true</tt> if the cache removed the entry on its own rather than because of
+	 * 		   a call for its key.
+	 */
+	public boolean wasEvicted() {
+		return this == EXPIRED || this == SIZE;
+	}
+}
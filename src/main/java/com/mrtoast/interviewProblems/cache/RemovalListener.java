@@ -0,0 +1,20 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * Reacts to the removal of cache entries, for example by releasing the resources held by
+ * the value or writing the entry to a slower tier.
+ * <p>
+ * Listeners are called on an executor after the cache has released its lock, so a slow
+ * listener delays other notifications but never the cache's callers. Notifications are
+ * delivered one at a time in the order the removals happened.
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+	
+	/**
+	 * @param key the key of the removed entry
+	 * @param value the removed value, or the replaced value for {@link RemovalCause#REPLACED}
+	 * @param cause why the entry was removed
+	 */
+	void onRemoval(K key, V value, RemovalCause cause);
+}
@@ -0,0 +1,101 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the removals of a cache to a {@link RemovalListener} on an executor.
+ * <p>
+ * Removals are published while the cache holds its lock, which only appends them to a
+ * lock-free queue. The first removal of a batch submits a drain task, and removals published
+ * while it is pending or running join its batch, so a burst of evictions costs one task
+ * instead of one per entry. At most one drain runs at a time, which keeps the notifications
+ * in order and calls the listener from one thread at a time.
+ */
+final class RemovalNotifier<K, V> {
+	
+	private final RemovalListener<? super K, ? super V> listener;
+	private final Executor executor;
+	private final Queue<Notification<K, V>> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean isScheduled = new AtomicBoolean();
+	private final Runnable drainTask = this::drain;
+	
+	/**
+	 * @throws IllegalArgumentException if the listener or the executor is null
+	 */
+	RemovalNotifier(RemovalListener<? super K, ? super V> listener, Executor executor) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Removal listener is null");
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor is null");
+		}
+		this.listener = listener;
+		this.executor = executor;
+	}
+	
+	/**
+	 * Queues the notification and schedules a drain unless one is already pending. If the
+	 * executor rejects the drain the notifications stay queued, in order, and the next
+	 * removal tries again; the listener is never called on the publishing thread, which
+	 * holds the cache's lock.
+	 */
+	void publish(K key, V value, RemovalCause cause) {
+		pending.add(new Notification<>(key, value, cause));
+		if (isScheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(drainTask);
+			}
+			catch (RejectedExecutionException e) {
+				isScheduled.set(false);
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of notifications not yet delivered, as an estimate.
+	 */
+	int getPendingCount() {
+		return pending.size();
+	}
+	
+	private void drain() {
+		do {
+			Notification<K, V> notification;
+			while ((notification = pending.poll()) != null) {
+				deliver(notification);
+			}
+			isScheduled.set(false);
+			// a notification published after the last poll saw the drain still scheduled
+		} while (!pending.isEmpty() && isScheduled.compareAndSet(false, true));
+	}
+	
+	/**
+	 * Calls the listener, reporting its exceptions to the thread's uncaught exception handler
+	 * so that one failure does not lose the rest of the batch.
+	 */
+	private void deliver(Notification<K, V> notification) {
+		try {
+			listener.onRemoval(notification.key, notification.value, notification.cause);
+		}
+		catch (RuntimeException e) {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		}
+	}
+	
+	private static final class Notification<K, V> {
+		private final K key;
+		private final V value;
+		private final RemovalCause cause;
+		
+		Notification(K key, V value, RemovalCause cause) {
+			this.key = key;
+			this.value = value;
+			this.cause = cause;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts values to and from bytes so they can be stored outside the Java heap or on disk.
+ * 
+ * @see Serializers
+ */
+public interface Serializer<T> {
+	
+	/**
+	 * @param value T
+	 * @return the bytes of the value
+	 */
+	byte[] serialize(T value);
+	
+	/**
+	 * @param buffer holds exactly the bytes of one value between its position and limit.
+	 * 		  The buffer is only valid for the duration of the call.
+	 * @return the value read from the buffer
+	 */
+	T deserialize(ByteBuffer buffer);
+}
@@ -0,0 +1,68 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Serializer} implementations for common key and value types.
+ */
+public final class Serializers {
+	
+	/** stores strings as UTF-8 */
+	public static final Serializer<String> STRING = new Serializer<String>() {
+		@Override
+		public byte[] serialize(String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		@Override
+		public String deserialize(ByteBuffer buffer) {
+			return StandardCharsets.UTF_8.decode(buffer).toString();
+		}
+	};
+	
+	/** stores byte arrays as they are */
+	public static final Serializer<byte[]> BYTES = new Serializer<byte[]>() {
+		@Override
+		public byte[] serialize(byte[] value) {
+			return value;
+		}
+		
+		@Override
+		public byte[] deserialize(ByteBuffer buffer) {
+			byte[] value = new byte[buffer.remaining()];
+			buffer.get(value);
+			return value;
+		}
+	};
+	
+	/** stores integers as 4 big-endian bytes */
+	public static final Serializer<Integer> INTEGER = new Serializer<Integer>() {
+		@Override
+		public byte[] serialize(Integer value) {
+			return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+		}
+		
+		@Override
+		public Integer deserialize(ByteBuffer buffer) {
+			return buffer.getInt();
+		}
+	};
+	
+	/** stores longs as 8 big-endian bytes */
+	public static final Serializer<Long> LONG = new Serializer<Long>() {
+		@Override
+		public byte[] serialize(Long value) {
+			return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+		}
+		
+		@Override
+		public Long deserialize(ByteBuffer buffer) {
+			return buffer.getLong();
+		}
+	};
+	
+	private Serializers() {
+		//static utility class
+	}
+}
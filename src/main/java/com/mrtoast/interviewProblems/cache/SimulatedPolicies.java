@@ -0,0 +1,69 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.function.IntFunction;
+
+/**
+ * Adapts the caches of this package to {@link SimulatedPolicy}, each as a factory that
+ * creates the policy for a maximum size.
+ */
+public final class SimulatedPolicies {
+	
+	private SimulatedPolicies() {
+		//static utility class
+	}
+	
+	/**
+	 * @return an access-order {@link Cache}, which evicts the least recently used key.
+	 */
+	public static IntFunction<SimulatedPolicy> lru() {
+		return maxSize -> cachePolicy(new Cache<Long, Boolean>(initialCapacity(maxSize),
+				Cache.DEFAULT_LOAD_FACTOR, true, maxSize));
+	}
+	
+	/**
+	 * @return an insertion-order {@link Cache}, which evicts the least recently added key.
+	 */
+	public static IntFunction<SimulatedPolicy> fifo() {
+		return maxSize -> cachePolicy(new Cache<Long, Boolean>(initialCapacity(maxSize),
+				Cache.DEFAULT_LOAD_FACTOR, false, maxSize));
+	}
+	
+	/**
+	 * @return a {@link Cache} with the {@link AdmissionPolicy#WINDOW_TINY_LFU} admission policy.
+	 */
+	public static IntFunction<SimulatedPolicy> windowTinyLfu() {
+		return maxSize -> cachePolicy(new Cache<Long, Boolean>(initialCapacity(maxSize),
+				Cache.DEFAULT_LOAD_FACTOR, true, maxSize, AdmissionPolicy.WINDOW_TINY_LFU));
+	}
+	
+	/**
+	 * @return a {@link LongKeyCache}, an LRU policy without boxed keys.
+	 */
+	public static IntFunction<SimulatedPolicy> longKeyLru() {
+		return maxSize -> {
+			LongKeyCache<Boolean> cache = new LongKeyCache<>(maxSize);
+			return key -> {
+				if (cache.get(key) != null) {
+					return true;
+				}
+				cache.put(key, Boolean.TRUE);
+				return false;
+			};
+		};
+	}
+	
+	private static SimulatedPolicy cachePolicy(Cache<Long, Boolean> cache) {
+		return key -> {
+			Long boxedKey = key;
+			if (cache.get(boxedKey) != null) {
+				return true;
+			}
+			cache.put(boxedKey, Boolean.TRUE);
+			return false;
+		};
+	}
+	
+	private static int initialCapacity(int maxSize) {
+		return Math.min(Cache.DEFAULT_INITIAL_CAPACITY, maxSize);
+	}
+}
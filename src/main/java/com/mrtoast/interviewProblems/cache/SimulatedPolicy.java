@@ -0,0 +1,19 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * An eviction policy as seen by a {@link TraceSimulator}: a cache of keys only, which is
+ * asked for every key of a trace and admits the keys it misses.
+ *
+ * @see SimulatedPolicies
+ */
+@FunctionalInterface
+public interface SimulatedPolicy {
+	
+	/**
+	 * Looks the key up and, on a miss, adds it, evicting as the policy chooses.
+	 * 
+	 * @param key the next key of the trace
+	 * @return <tt>true</tt> if the key was cached
+	 */
+	boolean record(long key);
+}
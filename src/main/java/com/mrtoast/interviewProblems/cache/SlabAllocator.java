@@ -0,0 +1,284 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Allocates chunks of direct memory for an {@link OffHeapCache}.
+ * <p>
+ * Memory is reserved in slabs of a fixed size, each a direct {@link ByteBuffer} cut into
+ * equal chunks of one size class. Size classes are the powers of two from
+ * {@value #MIN_CHUNK_SIZE} bytes up to the slab size, so a record wastes less than half of
+ * its chunk. Freed chunks are reused by the next allocation of the same size class, and a
+ * slab whose chunks are all free is released so its memory can be used by other size classes.
+ * <p>
+ * A chunk is identified by an address that packs the slab id into the high 32 bits and the
+ * chunk index into the low 32 bits. Each chunk starts with the 4 byte length of its record.
+ * This class is not thread-safe.
+ */
+final class SlabAllocator {
+
+	/** 64 bytes - the smallest chunk size */
+	static final int MIN_CHUNK_SIZE = 64;
+
+	/** 4 bytes - the length header at the start of each chunk */
+	static final int HEADER_SIZE = Integer.BYTES;
+
+	/** -1 - the address returned when the memory limit has been reached */
+	static final long NO_ADDRESS = -1L;
+
+	private final int slabSize;
+	private final long maxMemory;
+	private final Deque<Slab>[] partialSlabs;
+
+	private Slab[] slabs = new Slab[16];
+	private final Deque<Integer> freeSlabIds = new ArrayDeque<>();
+	private int slabCount;
+	private long allocatedBytes;
+	private long usedBytes;
+
+	/**
+	 * @param slabSize the size in bytes of each slab, a power of two of at least 64 bytes
+	 * @param maxMemory the maximum number of bytes of slabs to allocate
+	 * @throws IllegalArgumentException if the slab size is not a power of two of at least
+	 * 		   64 bytes or the maximum memory is smaller than one slab
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	SlabAllocator(int slabSize, long maxMemory) {
+		if (slabSize < MIN_CHUNK_SIZE || Integer.bitCount(slabSize) != 1) {
+			throw new IllegalArgumentException("Slab size must be a power of two of at least " + MIN_CHUNK_SIZE);
+		}
+		if (maxMemory < slabSize) {
+			throw new IllegalArgumentException("Maximum memory must be at least one slab");
+		}
+		this.slabSize = slabSize;
+		this.maxMemory = maxMemory;
+		int sizeClasses = Integer.numberOfTrailingZeros(slabSize) - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE) + 1;
+		this.partialSlabs = new Deque[sizeClasses];
+		for (int i=0; i<sizeClasses; i++) {
+			partialSlabs[i] = new ArrayDeque<>();
+		}
+	}
+
+	/**
+	 * @return the largest record, in bytes, that fits in a chunk.
+	 */
+	int getMaxRecordSize() {
+		return slabSize - HEADER_SIZE;
+	}
+
+	/**
+	 * Stores the record in a chunk of the smallest size class that can hold it.
+	 *
+	 * @param record the bytes to store
+	 * @return the address of the chunk, or {@link #NO_ADDRESS} if a new slab is needed
+	 * 		   but the maximum memory has been reached
+	 * @throws IllegalArgumentException if the record is larger than {@link #getMaxRecordSize()}
+	 */
+	long allocate(byte[] record) {
+		if (record.length > getMaxRecordSize()) {
+			throw new IllegalArgumentException("Record of " + record.length + " bytes exceeds the slab size");
+		}
+		int sizeClass = sizeClass(record.length + HEADER_SIZE);
+		Deque<Slab> partial = partialSlabs[sizeClass];
+		Slab slab = partial.peekFirst();
+		if (slab == null) {
+			if (allocatedBytes + slabSize > maxMemory) {
+				releaseEmptySlabs();
+			}
+			if (allocatedBytes + slabSize > maxMemory) {
+				return NO_ADDRESS;
+			}
+			slab = newSlab(sizeClass);
+			partial.addFirst(slab);
+		}
+
+		int chunk = slab.freeChunks[--slab.freeCount];
+		if (slab.freeCount == 0) {
+			partial.removeFirst();
+		}
+		usedBytes += slab.chunkSize;
+
+		ByteBuffer buffer = slab.buffer.duplicate();
+		buffer.position(chunk * slab.chunkSize);
+		buffer.putInt(record.length);
+		buffer.put(record);
+		return ((long) slab.id << 32) | chunk;
+	}
+
+	/**
+	 * @return a read-only view of the record stored at the address.
+	 */
+	ByteBuffer read(long address) {
+		Slab slab = slabs[slabIdOf(address)];
+		int offset = chunkIndexOf(address) * slab.chunkSize;
+		ByteBuffer buffer = slab.buffer.asReadOnlyBuffer();
+		int length = buffer.getInt(offset);
+		buffer.limit(offset + HEADER_SIZE + length);
+		buffer.position(offset + HEADER_SIZE);
+		return buffer.slice();
+	}
+
+	/**
+	 * Returns the chunk at the address to its size class, releasing its slab if it is empty.
+	 */
+	void free(long address) {
+		Slab slab = slabs[slabIdOf(address)];
+		Deque<Slab> partial = partialSlabs[slab.sizeClass];
+		if (slab.freeCount == 0) {
+			partial.addLast(slab);
+		}
+		slab.freeChunks[slab.freeCount++] = chunkIndexOf(address);
+		usedBytes -= slab.chunkSize;
+
+		// keep one empty slab per size class to avoid churning slabs at a boundary
+		if (slab.freeCount == slab.freeChunks.length && partial.size() > 1) {
+			partial.remove(slab);
+			releaseSlab(slab);
+		}
+	}
+
+	/**
+	 * Releases every slab. Their direct memory is returned once the buffers are garbage collected.
+	 */
+	void clear() {
+		for (Deque<Slab> partial : partialSlabs) {
+			partial.clear();
+		}
+		slabs = new Slab[16];
+		freeSlabIds.clear();
+		slabCount = 0;
+		allocatedBytes = 0;
+		usedBytes = 0;
+	}
+
+	/**
+	 * @return the size class of the chunks that hold records of the length.
+	 */
+	int sizeClassOfRecord(int length) {
+		return sizeClass(length + HEADER_SIZE);
+	}
+
+	/**
+	 * @return the size class of the chunk at the address.
+	 */
+	int sizeClassOf(long address) {
+		return slabs[slabIdOf(address)].sizeClass;
+	}
+
+	/**
+	 * @return the number of chunks in the slab holding the chunk at the address.
+	 */
+	int chunkCountOf(long address) {
+		return slabs[slabIdOf(address)].freeChunks.length;
+	}
+
+	/**
+	 * @return the number of size classes, from {@value #MIN_CHUNK_SIZE} bytes up to the slab size.
+	 */
+	int getSizeClassCount() {
+		return partialSlabs.length;
+	}
+
+	/**
+	 * @return the id of the slab holding the chunk at the address.
+	 */
+	static int slabIdOf(long address) {
+		return (int) (address >>> 32);
+	}
+
+	/**
+	 * @return the index of the chunk at the address within its slab.
+	 */
+	static int chunkIndexOf(long address) {
+		return (int) address;
+	}
+
+	/**
+	 * @return the number of bytes of slabs currently allocated.
+	 */
+	long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * @return the number of bytes of chunks currently holding records.
+	 */
+	long getUsedBytes() {
+		return usedBytes;
+	}
+
+	private int sizeClass(int size) {
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, Integer.highestOneBit(size - 1) << 1);
+		return Integer.numberOfTrailingZeros(chunkSize) - Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE);
+	}
+
+	private Slab newSlab(int sizeClass) {
+		int id;
+		if (freeSlabIds.isEmpty()) {
+			id = slabCount++;
+			if (id == slabs.length) {
+				Slab[] grown = new Slab[slabs.length * 2];
+				System.arraycopy(slabs, 0, grown, 0, slabs.length);
+				slabs = grown;
+			}
+		}
+		else {
+			id = freeSlabIds.pop();
+		}
+		Slab slab = new Slab(id, sizeClass, MIN_CHUNK_SIZE << sizeClass, slabSize);
+		slabs[id] = slab;
+		allocatedBytes += slabSize;
+		return slab;
+	}
+
+	/**
+	 * Releases the empty slabs kept by each size class so their memory can be reused.
+	 */
+	private void releaseEmptySlabs() {
+		for (Deque<Slab> partial : partialSlabs) {
+			Iterator<Slab> iterator = partial.iterator();
+			while (iterator.hasNext()) {
+				Slab slab = iterator.next();
+				if (slab.freeCount == slab.freeChunks.length) {
+					iterator.remove();
+					releaseSlab(slab);
+				}
+			}
+		}
+	}
+
+	private void releaseSlab(Slab slab) {
+		slabs[slab.id] = null;
+		freeSlabIds.push(slab.id);
+		allocatedBytes -= slabSize;
+	}
+
+	/**
+	 * A direct buffer divided into chunks of one size class, with a stack of its free chunks.
+	 */
+	private static final class Slab {
+		private final int id;
+		private final int sizeClass;
+		private final int chunkSize;
+		private final ByteBuffer buffer;
+		private final int[] freeChunks;
+		private int freeCount;
+
+		private Slab(int id, int sizeClass, int chunkSize, int slabSize) {
+			this.id = id;
+			this.sizeClass = sizeClass;
+			this.chunkSize = chunkSize;
+			this.buffer = ByteBuffer.allocateDirect(slabSize);
+			int chunks = slabSize / chunkSize;
+			this.freeChunks = new int[chunks];
+			// hand out the chunks from the start of the slab first
+			for (int i=0; i<chunks; i++) {
+				freeChunks[i] = chunks - 1 - i;
+			}
+			this.freeCount = chunks;
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A {@link Transport} over TCP sockets, identifying each node by its <tt>host:port</tt>.
+ * <p>
+ * Every message is framed by its length. A connection carries one request at a time, and
+ * idle connections to each node are kept for the next request, so concurrent requests to a
+ * node open as many connections as they need once and then reuse them. Each accepted
+ * connection is served by its own daemon thread.
+ */
+public class SocketTransport implements Transport {
+	
+	/** 5000 - the default connect and read timeout in milliseconds */
+	static final int DEFAULT_TIMEOUT = 5000;
+	
+	/** 64 MB - the largest message accepted, which guards against a corrupt length */
+	private static final int MAX_MESSAGE_LENGTH = 64 << 20;
+	
+	private final ServerSocket serverSocket;
+	private final String localNode;
+	private final int timeout;
+	private final ExecutorService connectionExecutor = Executors.newCachedThreadPool(
+			new ThreadPoolExecutorImpl.ThreadFactoryImpl("socket-transport-", true));
+	private final Set<Socket> acceptedSockets = ConcurrentHashMap.newKeySet();
+	private final ConcurrentHashMap<String, Queue<Connection>> idleConnections = new ConcurrentHashMap<>();
+	private final AtomicBoolean isStarted = new AtomicBoolean();
+	private volatile boolean isClosed;
+	
+	/**
+	 * @param bindAddress the address to accept requests on, with port 0 for any free port
+	 * @throws IOException if the address cannot be bound
+	 */
+	public SocketTransport(InetSocketAddress bindAddress) throws IOException {
+		this(bindAddress, DEFAULT_TIMEOUT);
+	}
+	
+	/**
+	 * @param bindAddress the address to accept requests on, with port 0 for any free port
+	 * @param timeout the connect and read timeout in milliseconds, or 0 for none
+	 * @throws IOException if the address cannot be bound
+	 * @throws IllegalArgumentException if the timeout is negative
+	 */
+	public SocketTransport(InetSocketAddress bindAddress, int timeout) throws IOException {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout is negative");
+		}
+		this.timeout = timeout;
+		this.serverSocket = new ServerSocket();
+		serverSocket.bind(bindAddress);
+		this.localNode = serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * @return a transport accepting requests on a free port of the loopback address, for
+	 * 		   nodes running on the same host or in the same process.
+	 * @throws IOException if no port can be bound
+	 */
+	public static SocketTransport loopback() throws IOException {
+		return new SocketTransport(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+	}
+	
+	@Override
+	public String getLocalNode() {
+		return localNode;
+	}
+	
+	@Override
+	public void start(Function<byte[], byte[]> handler) {
+		if (!isStarted.compareAndSet(false, true)) {
+			throw new IllegalStateException("Transport has already been started");
+		}
+		connectionExecutor.execute(() -> accept(handler));
+	}
+	
+	private void accept(Function<byte[], byte[]> handler) {
+		while (!isClosed) {
+			try {
+				Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				acceptedSockets.add(socket);
+				connectionExecutor.execute(() -> serve(socket, handler));
+			}
+			catch (IOException e) {
+				// the server socket has been closed, or the connection was reset while accepted
+			}
+		}
+	}
+	
+	/**
+	 * Answers the requests of one connection until the peer closes it.
+	 */
+	private void serve(Socket socket, Function<byte[], byte[]> handler) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+			while (true) {
+				byte[] request;
+				try {
+					request = readMessage(in);
+				}
+				catch (EOFException e) {
+					return;
+				}
+				writeMessage(out, handler.apply(request));
+			}
+		}
+		catch (IOException e) {
+			// the peer has gone away, or the transport is closing
+		}
+		finally {
+			acceptedSockets.remove(socket);
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				// nothing left to release
+			}
+		}
+	}
+	
+	@Override
+	public byte[] send(String node, byte[] request) throws IOException {
+		if (isClosed) {
+			throw new IOException("Transport has been closed");
+		}
+		Queue<Connection> idle = idleConnections.computeIfAbsent(node, n -> new ConcurrentLinkedQueue<>());
+		Connection connection = idle.poll();
+		if (connection == null) {
+			connection = new Connection(node, timeout);
+		}
+		try {
+			writeMessage(connection.out, request);
+			byte[] response = readMessage(connection.in);
+			idle.add(connection);
+			return response;
+		}
+		catch (IOException e) {
+			// the state of the connection is unknown, so it cannot be reused
+			connection.close();
+			throw e;
+		}
+	}
+	
+	private static byte[] readMessage(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+			throw new IOException("Invalid message length: " + length);
+		}
+		byte[] message = new byte[length];
+		in.readFully(message);
+		return message;
+	}
+	
+	private static void writeMessage(DataOutputStream out, byte[] message) throws IOException {
+		out.writeInt(message.length);
+		out.write(message);
+		out.flush();
+	}
+	
+	/**
+	 * Stops accepting requests and closes every connection. Requests in progress fail.
+	 */
+	@Override
+	public void close() throws IOException {
+		isClosed = true;
+		serverSocket.close();
+		for (Socket socket : acceptedSockets) {
+			socket.close();
+		}
+		for (Queue<Connection> idle : idleConnections.values()) {
+			Connection connection;
+			while ((connection = idle.poll()) != null) {
+				connection.close();
+			}
+		}
+		connectionExecutor.shutdownNow();
+	}
+	
+	/**
+	 * An outgoing connection to a node.
+	 */
+	private static final class Connection {
+		private final Socket socket;
+		private final DataInputStream in;
+		private final DataOutputStream out;
+		
+		/**
+		 * @param node the <tt>host:port</tt> of the node
+		 */
+		Connection(String node, int timeout) throws IOException {
+			int separator = node.lastIndexOf(':');
+			if (separator < 0) {
+				throw new IOException("Node is not host:port: " + node);
+			}
+			InetSocketAddress address = new InetSocketAddress(node.substring(0, separator),
+					Integer.parseInt(node.substring(separator + 1)));
+			this.socket = new Socket();
+			try {
+				socket.connect(address, timeout);
+				socket.setSoTimeout(timeout);
+				socket.setTcpNoDelay(true);
+				this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			}
+			catch (IOException e) {
+				socket.close();
+				throw e;
+			}
+		}
+		
+		void close() {
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				// nothing left to release
+			}
+		}
+	}
+}
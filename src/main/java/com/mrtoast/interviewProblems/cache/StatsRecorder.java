@@ -0,0 +1,63 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * Receives the events of a cache for statistics. Caches record into {@link #DISABLED} until
+ * a recorder is set, which ignores every event so an unmonitored cache pays only for an
+ * empty call.
+ *
+ * @see ConcurrentStatsRecorder
+ */
+public interface StatsRecorder {
+
+	/** ignores every event and reports empty statistics */
+	StatsRecorder DISABLED = new StatsRecorder() {};
+
+	/**
+	 * @param count the number of lookups that found a value
+	 */
+	default void recordHits(int count) {
+		//disabled
+	}
+
+	/**
+	 * @param count the number of lookups that found no value
+	 */
+	default void recordMisses(int count) {
+		//disabled
+	}
+
+	/**
+	 * Records an entry removed to keep the cache within its capacity or weight.
+	 */
+	default void recordEviction() {
+		//disabled
+	}
+
+	/**
+	 * Records an entry removed because its delay had passed.
+	 */
+	default void recordExpiration() {
+		//disabled
+	}
+
+	/**
+	 * @param loadTimeNanos the time taken by a loader that returned a value
+	 */
+	default void recordLoadSuccess(long loadTimeNanos) {
+		//disabled
+	}
+
+	/**
+	 * @param loadTimeNanos the time taken by a loader that threw an exception
+	 */
+	default void recordLoadFailure(long loadTimeNanos) {
+		//disabled
+	}
+
+	/**
+	 * @return the statistics recorded so far.
+	 */
+	default CacheStats snapshot() {
+		return CacheStats.EMPTY;
+	}
+}
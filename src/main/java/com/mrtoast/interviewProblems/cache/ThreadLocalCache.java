@@ -1,68 +1,375 @@
-package com.mrtoast.interviewProblems.cache;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-
-public class ThreadLocalCache<K, V> {
-	
-	private final ThreadPoolExecutor executorService = new ThreadPoolExecutorImpl();
-	
-	private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor( 
-			new ThreadFactory() {
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread daemonThread = new Thread(r, ("ScheduledDaemonWorker"));
-					daemonThread.setDaemon(true);
-					return daemonThread;
-				}
-			});
-	
-	private final Map<Thread, ExpiringCache<K, V>> threadGroups = new ConcurrentHashMap<>();
-	
-	public ThreadLocalCache() {
-		//default constructor
-	}
-	
-	/**
-	 * 
-	 * @param task
-	 * @return
-	 */
-	public Future<?> executeTask(Runnable task) {
-		return executorService.submit(task);
-	}
-	
-	public ScheduledFuture<?> executeScheduledCleanup(long initialDelay, long period, TimeUnit unit) {
-		return executeScheduledTask(
-				new Runnable() {
-					@Override
-					public void run() {
-						cleanup();
-					}
-				}, initialDelay, period, unit);
-	}
-	
-	private ScheduledFuture<?> executeScheduledTask(Runnable task, long initialDelay, long period, TimeUnit unit) {
-		return scheduledExecutorService.scheduleAtFixedRate(task, initialDelay, period, unit);
-	}
-	
-	private void cleanup() {
-		for (ExpiringCache<K, V> cache: threadGroups.values()) {
-			if (cache != null) {
-				cache.cleanup();
-			}
-		}
-	}
-	
-	public void shutdown() {
-		executorService.shutdown();
-		scheduledExecutorService.shutdown();
-	}
-}
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A two-level cache: each thread reads through its own small LRU cache (L1) in front of a
+ * shared {@link ExpiringCache} (L2).
+ * <p>
+ * An L1 is only ever touched by its own thread, so hits on hot keys take no lock at all. A miss
+ * reads the L2 and copies the entry into the L1 together with its expiring time, so an L1 never
+ * serves a value past its expiration. Writes go to the L2 and then append the key to a shared,
+ * bounded log of invalidations under a global sequence number. At the start of each call a
+ * thread compares the sequence with the one its L1 has caught up to, which costs a single
+ * volatile read when nothing was written, and otherwise removes the logged keys from its L1.
+ * A thread can therefore see a replaced value for at most the call already in progress. An
+ * L1 that has fallen further behind than the log reaches, as the L1 of an idle thread does,
+ * is cleared instead, so writes cost O(1) whatever the number of threads and an idle thread
+ * accumulates nothing.
+ * <p>
+ * The L1s are registered in a weak map keyed by their thread, so the L1 of a thread that has
+ * died is garbage collected with it instead of being kept alive by the cache.
+ */
+public class ThreadLocalCache<K, V> {
+	
+	/** 60 seconds - the default delay after which values expire */
+	static final long DEFAULT_DELAY = 60_000;
+	
+	/** 64 - the default maximum number of entries in each thread's L1 */
+	static final int DEFAULT_LOCAL_MAX_SIZE = 64;
+	
+	/** 1024 - the number of recent invalidations an L1 can catch up on before it is cleared */
+	static final int INVALIDATION_LOG_SIZE = 1024;
+	
+	/** logged to invalidate every key */
+	private static final Object CLEAR_ALL = new Object();
+	
+	private final ExecutorService executorService;
+	
+	private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor( 
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread daemonThread = new Thread(r, ("ScheduledDaemonWorker"));
+					daemonThread.setDaemon(true);
+					return daemonThread;
+				}
+			});
+	
+	/** the L1 of every live thread that has used this cache; guarded by itself */
+	private final Map<Thread, LocalCache<K, V>> localCaches = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	/** the sequence number of the next invalidation */
+	private final AtomicLong invalidationSequence = new AtomicLong();
+	
+	/** the recent invalidations, each at its sequence number modulo the log size */
+	private final AtomicReferenceArray<Invalidation> invalidationLog = new AtomicReferenceArray<>(INVALIDATION_LOG_SIZE);
+	
+	private final ThreadLocal<LocalCache<K, V>> localCache = ThreadLocal.withInitial(this::newLocalCache);
+	
+	private final ExpiringCache<K, V> sharedCache;
+	private final int localMaxSize;
+	private final StatsRecorder statsRecorder;
+	
+	public ThreadLocalCache() {
+		this(StatsRecorder.DISABLED);
+	}
+	
+	/**
+	 * @param statsRecorder records the statistics of every cache created by this instance,
+	 * 		  for example a {@link ConcurrentStatsRecorder}
+	 */
+	public ThreadLocalCache(StatsRecorder statsRecorder) {
+		this(DEFAULT_DELAY, Cache.DEFAULT_MAX_CAPACITY, DEFAULT_LOCAL_MAX_SIZE, statsRecorder);
+	}
+	
+	/**
+	 * @param delay the time in milliseconds after which a value expires
+	 * @param maxSize the maximum number of entries in the shared L2
+	 * @param localMaxSize the maximum number of entries in each thread's L1
+	 * @param statsRecorder records the statistics of every cache created by this instance,
+	 * 		  for example a {@link ConcurrentStatsRecorder}
+	 * @throws IllegalArgumentException if a maximum size is not positive or the recorder is null
+	 */
+	public ThreadLocalCache(long delay, int maxSize, int localMaxSize, StatsRecorder statsRecorder) {
+		this(delay, maxSize, localMaxSize, statsRecorder, ExecutionMode.PLATFORM_THREADS);
+	}
+	
+	/**
+	 * @param delay the time in milliseconds after which a value expires
+	 * @param maxSize the maximum number of entries in the shared L2
+	 * @param localMaxSize the maximum number of entries in each thread's L1
+	 * @param statsRecorder records the statistics of every cache created by this instance,
+	 * 		  for example a {@link ConcurrentStatsRecorder}
+	 * @param executionMode the threads that run the tasks and the asynchronous loads, for
+	 * 		  example {@link ExecutionMode#VIRTUAL_THREADS} for loaders that block on I/O
+	 * @throws IllegalArgumentException if a maximum size is not positive or the recorder is null
+	 */
+	public ThreadLocalCache(long delay, int maxSize, int localMaxSize, StatsRecorder statsRecorder,
+			ExecutionMode executionMode) {
+		if (maxSize <= 0 || localMaxSize <= 0) {
+			throw new IllegalArgumentException("Maximum sizes must be greater than 0");
+		}
+		if (statsRecorder == null) {
+			throw new IllegalArgumentException("Stats recorder is null");
+		}
+		this.statsRecorder = statsRecorder;
+		this.localMaxSize = localMaxSize;
+		this.sharedCache = newExpiringCache(delay, maxSize);
+		this.executorService = executionMode.newExecutor(scheduledExecutorService);
+	}
+	
+	/**
+	 * @return the value for the key from the calling thread's L1, or else from the shared L2,
+	 * 		   or <tt>null</tt> if there is no value or it has expired.
+	 */
+	public V get(K key) {
+		LocalCache<K, V> local = localCache.get();
+		catchUp(local);
+		long currentTimeMillis = System.currentTimeMillis();
+		LocalEntry<V> localEntry = local.entries.get(key);
+		if (localEntry != null) {
+			if (localEntry.expiringTime > currentTimeMillis) {
+				statsRecorder.recordHits(1);
+				return localEntry.value;
+			}
+			local.entries.remove(key);
+		}
+		// the L2 records its own hit or miss
+		ExpiringEntry<K, V> entry = sharedCache.getEntry(key);
+		if (entry == null) {
+			return null;
+		}
+		V value = entry.getValue();
+		local.entries.put(key, new LocalEntry<>(value, entry.getExpiringTime()));
+		return value;
+	}
+	
+	/**
+	 * Adds or replaces the value for the key in the shared L2 and the calling thread's L1,
+	 * and invalidates the key in the L1s of the other threads.
+	 */
+	public void put(K key, V value) {
+		LocalCache<K, V> local = localCache.get();
+		catchUp(local);
+		sharedCache.put(key, value);
+		ExpiringEntry<K, V> entry = sharedCache.getEntry(key, false);
+		if (entry == null) {
+			local.entries.remove(key);
+		}
+		else {
+			local.entries.put(key, new LocalEntry<>(entry.getValue(), entry.getExpiringTime()));
+		}
+		postInvalidation(local, key);
+	}
+	
+	/**
+	 * Removes the value for the key from the shared L2 and every thread's L1.
+	 * 
+	 * @return the previous value in the L2, or <tt>null</tt> if there was none.
+	 */
+	public V invalidate(K key) {
+		LocalCache<K, V> local = localCache.get();
+		catchUp(local);
+		V value = sharedCache.remove(key);
+		local.entries.remove(key);
+		postInvalidation(local, key);
+		return value;
+	}
+	
+	/**
+	 * Removes every value from the shared L2 and every thread's L1.
+	 */
+	public void invalidateAll() {
+		LocalCache<K, V> local = localCache.get();
+		sharedCache.clear();
+		local.entries.clear();
+		postInvalidation(local, CLEAR_ALL);
+	}
+	
+	/**
+	 * @return the number of entries in the shared L2, including expired entries that have
+	 * 		   not been reclaimed yet.
+	 */
+	public int size() {
+		return sharedCache.size();
+	}
+	
+	/**
+	 * @return the number of live threads with an L1.
+	 */
+	int getLocalCacheCount() {
+		return localCaches.size();
+	}
+	
+	private LocalCache<K, V> newLocalCache() {
+		// an empty L1 has nothing to invalidate
+		LocalCache<K, V> local = new LocalCache<>(localMaxSize, invalidationSequence.get());
+		localCaches.put(Thread.currentThread(), local);
+		return local;
+	}
+	
+	/**
+	 * Logs the invalidation for the other L1s, after the shared L2 has been updated.
+	 */
+	private void postInvalidation(LocalCache<K, V> writer, Object key) {
+		long sequence = invalidationSequence.getAndIncrement();
+		invalidationLog.set(logIndex(sequence), new Invalidation(sequence, key, writer));
+	}
+	
+	/**
+	 * Removes the keys invalidated by other threads since the L1 last caught up. A log slot
+	 * holding another sequence number has been overwritten, or is still being written by a
+	 * writer whose L2 update is complete, and in both cases the L1 is cleared.
+	 */
+	private void catchUp(LocalCache<K, V> local) {
+		long end = invalidationSequence.get();
+		if (local.sequence == end) {
+			return;
+		}
+		if (end - local.sequence > INVALIDATION_LOG_SIZE) {
+			local.entries.clear();
+		}
+		else {
+			for (long sequence = local.sequence; sequence < end; sequence++) {
+				Invalidation invalidation = invalidationLog.get(logIndex(sequence));
+				if (invalidation == null || invalidation.sequence != sequence || invalidation.key == CLEAR_ALL) {
+					local.entries.clear();
+					break;
+				}
+				// the writer's own L1 already holds the value it wrote
+				if (invalidation.writer != local) {
+					local.entries.remove(invalidation.key);
+				}
+			}
+		}
+		local.sequence = end;
+	}
+	
+	private static int logIndex(long sequence) {
+		return (int) (sequence & (INVALIDATION_LOG_SIZE - 1));
+	}
+	
+	/**
+	 * 
+	 * @param task the task to run on this cache's executor
+	 * @return a future that completes when the task has run, or exceptionally with a
+	 * 		   {@link java.util.concurrent.RejectedExecutionException} if the executor rejects it
+	 */
+	public Future<?> executeTask(Runnable task) {
+		return executorService.submit(task);
+	}
+	
+	/**
+	 * Creates a {@link LoadingCache} whose asynchronous loads run on this cache's executor.
+	 * 
+	 * @param delay the time in milliseconds after which a loaded value expires
+	 * @param maxSize the maximum number of values to keep
+	 * @return LoadingCache
+	 */
+	public LoadingCache<K, V> newLoadingCache(long delay, int maxSize) {
+		return new LoadingCache<>(newExpiringCache(delay, maxSize), executorService);
+	}
+	
+	/**
+	 * Creates a {@link LoadingCache} that refreshes entries ahead of their expiration on this
+	 * cache's executor.
+	 * 
+	 * @param delay the time in milliseconds after which a loaded value expires
+	 * @param maxSize the maximum number of values to keep
+	 * @param refreshRatio the fraction of the delay after which a read also reloads the value
+	 * @return LoadingCache
+	 */
+	public LoadingCache<K, V> newLoadingCache(long delay, int maxSize, double refreshRatio) {
+		return new LoadingCache<>(newExpiringCache(delay, maxSize), executorService, refreshRatio);
+	}
+	
+	private ExpiringCache<K, V> newExpiringCache(long delay, int maxSize) {
+		ExpiringCache<K, V> cache = new ExpiringCache<>(delay, maxSize);
+		cache.setStatsRecorder(statsRecorder);
+		return cache;
+	}
+	
+	/**
+	 * @return the combined statistics of the caches created by this instance, which are empty
+	 * 		   unless it was constructed with a recorder.
+	 */
+	public CacheStats getStats() {
+		return statsRecorder.snapshot();
+	}
+	
+	/**
+	 * Periodically reclaims expired entries. The caches already treat expired entries as misses
+	 * and reclaim them incrementally, so this only returns memory sooner for idle caches.
+	 */
+	public ScheduledFuture<?> executeScheduledCleanup(long initialDelay, long period, TimeUnit unit) {
+		return executeScheduledTask(
+				new Runnable() {
+					@Override
+					public void run() {
+						cleanup();
+					}
+				}, initialDelay, period, unit);
+	}
+	
+	private ScheduledFuture<?> executeScheduledTask(Runnable task, long initialDelay, long period, TimeUnit unit) {
+		return scheduledExecutorService.scheduleAtFixedRate(task, initialDelay, period, unit);
+	}
+	
+	/**
+	 * Reclaims the expired entries of the shared L2. Expired L1 entries are dropped by their
+	 * own thread when it next reads them, since no other thread may touch an L1.
+	 */
+	private void cleanup() {
+		sharedCache.cleanup();
+	}
+	
+	public void shutdown() {
+		executorService.shutdown();
+		scheduledExecutorService.shutdown();
+	}
+	
+	/**
+	 * A thread's L1: an LRU cache only accessed by its thread, with the sequence number of the
+	 * first invalidation it has not caught up on.
+	 */
+	private static final class LocalCache<K, V> {
+		private final Cache<K, LocalEntry<V>> entries;
+		private long sequence;
+		
+		private LocalCache(int maxSize, long sequence) {
+			this.entries = new Cache<>(Math.min(Cache.DEFAULT_INITIAL_CAPACITY, maxSize),
+					Cache.DEFAULT_LOAD_FACTOR, Cache.DEFAULT_ACCESS_ORDER, maxSize);
+			this.sequence = sequence;
+		}
+	}
+	
+	/**
+	 * A key invalidated by a write, or {@link #CLEAR_ALL}, with the L1 of the writing thread.
+	 */
+	private static final class Invalidation {
+		private final long sequence;
+		private final Object key;
+		private final Object writer;
+		
+		private Invalidation(long sequence, Object key, Object writer) {
+			this.sequence = sequence;
+			this.key = key;
+			this.writer = writer;
+		}
+	}
+	
+	/**
+	 * A value copied into an L1 with the time at which it expires in the L2.
+	 */
+	private static final class LocalEntry<V> {
+		private final V value;
+		private final long expiringTime;
+		
+		private LocalEntry(V value, long expiringTime) {
+			this.value = value;
+			this.expiringTime = expiringTime;
+		}
+	}
+}
@@ -1,82 +1,356 @@
-package com.mrtoast.interviewProblems.cache;
-
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.RejectedExecutionHandler;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-
-public class ThreadPoolExecutorImpl extends ThreadPoolExecutor {
-	/** 0 - the default number of threads to always keep in the pool */
-	private static final int DEFAULT_CORE_POOL_SIZE = 0;
-	
-	/** 10 - the default maximum number of threads to allow in the pool */
-	private static final int DEFAULT_MAX_POOL_SIZE = 10;
-	
-	/** 10 - the default maximum capacity of the queue */
-	private static final int DEFAULT_MAX_QUEUE_SIZE = 10;
-	
-	/** 3000 ms - the default maximum time (in milliseconds) an idle thread waits for new tasks before terminating */
-	private static final long DEFAULT_KEEP_ALIVE_TIME = 3000;
-	
-	/** milliseconds - the default time unit for the keepAliveTime parameter */
-	private static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
-	
-	/** the default thread factory creates daemon threads with a generated name */
-	private static final ThreadFactory DEFAULT_THREAD_FACTORY = new ThreadFactoryImpl("DaemonWorker", true);
-	
-	public ThreadPoolExecutorImpl() {
-		super(DEFAULT_CORE_POOL_SIZE, 
-				DEFAULT_MAX_POOL_SIZE, 
-				DEFAULT_KEEP_ALIVE_TIME, 
-				DEFAULT_TIME_UNIT, 
-				newWorkQueue(DEFAULT_MAX_QUEUE_SIZE), 
-				DEFAULT_THREAD_FACTORY, 
-				new RejectedExecutionHandlerImpl());
-	}
-	
-	public ThreadPoolExecutorImpl(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, 
-			BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler)
-	{
-		super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
-	}
-	
-	private static BlockingQueue<Runnable> newWorkQueue(int maxQueueSize) throws IllegalArgumentException {
-		if (maxQueueSize == 0) {
-			return new LinkedBlockingQueue<>();
-		}
-		else if (maxQueueSize > 0) {
-			return new ArrayBlockingQueue<Runnable>(maxQueueSize);
-		}
-		throw new IllegalArgumentException("Max queue size must be greater than 0");
-	}
-	
-	private static class ThreadFactoryImpl implements ThreadFactory {
-		private final String name;
-		private final boolean isDaemon;
-		
-		private final AtomicInteger uid = new AtomicInteger();
-		
-		private ThreadFactoryImpl(String name, boolean isDaemon) {
-			this.name = name;
-			this.isDaemon = isDaemon;
-		}
-		
-		@Override
-		public Thread newThread(Runnable r) {
-			Thread daemonThread = new Thread(r, (name + uid.getAndIncrement()));
-			daemonThread.setDaemon(isDaemon);
-			return daemonThread;
-		}
-	}
-	
-	private static class RejectedExecutionHandlerImpl implements RejectedExecutionHandler {
-		@Override
-		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
-			System.out.println(runnable.toString() + " has been rejected.");
-		}
-	}
-}
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mrtoast.interviewProblems.ConcurrentPriorityQueue;
+
+/**
+ * A bounded pool of daemon threads.
+ * <p>
+ * Tasks that cannot be accepted are handed to a {@link RejectedExecutionHandler}, by default
+ * {@link RejectionPolicies#abort()}; see {@link RejectionPolicies} for the alternatives. A
+ * rejected task submitted through <tt>submit</tt> completes its future exceptionally with a
+ * {@link RejectedExecutionException} instead of leaving it pending forever, while a rejected
+ * task passed to <tt>execute</tt> makes the call throw it. Every rejection is counted.
+ * <p>
+ * Each task is queued in a {@link QueuedTask} that records when it was queued, so the
+ * policies can tell how long the queue has been waiting. The queue returned by
+ * {@link #getQueue()} holds these wrappers, while {@link #remove(Runnable)} and
+ * {@link #purge()} see through them to the tasks as they were passed to <tt>execute</tt>.
+ * <p>
+ * The time every task spends waiting in the queue and executing is recorded in histograms,
+ * which {@link #getStats()} returns together with the current pool size, active threads and
+ * queue depth. Tasks run by the submitting thread under
+ * {@link RejectionPolicies#callerRuns()} are not recorded.
+ */
+public class ThreadPoolExecutorImpl extends ThreadPoolExecutor {
+	/** 0 - the default number of threads to always keep in the pool */
+	private static final int DEFAULT_CORE_POOL_SIZE = 0;
+	
+	/** 10 - the default maximum number of threads to allow in the pool */
+	private static final int DEFAULT_MAX_POOL_SIZE = 10;
+	
+	/** 10 - the default maximum capacity of the queue */
+	private static final int DEFAULT_MAX_QUEUE_SIZE = 10;
+	
+	/** 3000 ms - the default maximum time (in milliseconds) an idle thread waits for new tasks before terminating */
+	private static final long DEFAULT_KEEP_ALIVE_TIME = 3000;
+	
+	/** milliseconds - the default time unit for the keepAliveTime parameter */
+	private static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.MILLISECONDS;
+	
+	/** the default thread factory creates daemon threads with a generated name */
+	private static final ThreadFactory DEFAULT_THREAD_FACTORY = new ThreadFactoryImpl("DaemonWorker", true);
+	
+	private final LongAdder rejectedCount = new LongAdder();
+	private final LatencyHistogram queueWait = new LatencyHistogram();
+	private final LatencyHistogram executionTime = new LatencyHistogram();
+	
+	public ThreadPoolExecutorImpl() {
+		super(DEFAULT_CORE_POOL_SIZE, 
+				DEFAULT_MAX_POOL_SIZE, 
+				DEFAULT_KEEP_ALIVE_TIME, 
+				DEFAULT_TIME_UNIT, 
+				newWorkQueue(DEFAULT_MAX_QUEUE_SIZE), 
+				DEFAULT_THREAD_FACTORY, 
+				RejectionPolicies.abort());
+	}
+	
+	/**
+	 * @param handler the policy for tasks that cannot be accepted
+	 * @see RejectionPolicies
+	 */
+	public ThreadPoolExecutorImpl(RejectedExecutionHandler handler) {
+		super(DEFAULT_CORE_POOL_SIZE, 
+				DEFAULT_MAX_POOL_SIZE, 
+				DEFAULT_KEEP_ALIVE_TIME, 
+				DEFAULT_TIME_UNIT, 
+				newWorkQueue(DEFAULT_MAX_QUEUE_SIZE), 
+				DEFAULT_THREAD_FACTORY, 
+				handler);
+	}
+	
+	public ThreadPoolExecutorImpl(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, 
+			BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler)
+	{
+		super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+	}
+	
+	/**
+	 * Creates a pool with the default sizes, queue and rejection policy whose core and maximum
+	 * sizes are then adapted to its load by an {@link AdaptivePoolSizer}, stepped on the
+	 * scheduler until the pool is shut down. The pool keeps at least one warm thread.
+	 * 
+	 * @param scheduler runs the sizing steps
+	 */
+	public static ThreadPoolExecutorImpl newAdaptive(ScheduledExecutorService scheduler) {
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl();
+		new AdaptivePoolSizer(executor, 1, DEFAULT_MAX_POOL_SIZE, AdaptivePoolSizer.DEFAULT_TARGET_QUEUE_WAIT,
+				DEFAULT_TIME_UNIT).start(scheduler, AdaptivePoolSizer.DEFAULT_PERIOD, DEFAULT_TIME_UNIT);
+		return executor;
+	}
+	
+	/**
+	 * Queues the task in a {@link QueuedTask} that records when it was queued.
+	 */
+	@Override
+	public void execute(Runnable command) {
+		if (command == null) {
+			throw new NullPointerException();
+		}
+		super.execute((command instanceof QueuedTask) ? command : new QueuedTask(command));
+	}
+	
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		return new RejectableFutureTask<>(runnable, value);
+	}
+	
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		return new RejectableFutureTask<>(callable);
+	}
+	
+	/**
+	 * @return the tasks that never started, as they were passed to <tt>execute</tt> or
+	 * 		   created by <tt>submit</tt>.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> tasks = new ArrayList<>();
+		for (Runnable task : super.shutdownNow()) {
+			tasks.add(unwrap(task));
+		}
+		return tasks;
+	}
+	
+	/**
+	 * Removes the task from the queue, looking it up by the task passed to <tt>execute</tt>
+	 * rather than by its {@link QueuedTask}.
+	 * 
+	 * @return <tt>true</tt> if the task was queued and has been removed
+	 */
+	@Override
+	public boolean remove(Runnable task) {
+		for (Object queued : getQueue().toArray()) {
+			if (queued != task && unwrap((Runnable) queued).equals(task)) {
+				return super.remove((Runnable) queued);
+			}
+		}
+		return super.remove(task);
+	}
+	
+	/**
+	 * Removes the cancelled futures from the queue, which holds them in {@link QueuedTask}s.
+	 */
+	@Override
+	public void purge() {
+		BlockingQueue<Runnable> queue = getQueue();
+		for (Object queued : queue.toArray()) {
+			Runnable task = unwrap((Runnable) queued);
+			if (task instanceof Future && ((Future<?>) task).isCancelled()) {
+				queue.remove(queued);
+			}
+		}
+		// lets the pool terminate if it has been shut down and the queue is now empty
+		super.purge();
+	}
+	
+	/**
+	 * Records how long the task waited in the queue.
+	 */
+	@Override
+	protected void beforeExecute(Thread thread, Runnable runnable) {
+		if (runnable instanceof QueuedTask) {
+			QueuedTask task = (QueuedTask) runnable;
+			task.startTime = System.nanoTime();
+			queueWait.record(task.startTime - task.queuedTime);
+		}
+	}
+	
+	/**
+	 * Records how long the task executed, whether or not it completed normally.
+	 */
+	@Override
+	protected void afterExecute(Runnable runnable, Throwable throwable) {
+		if (runnable instanceof QueuedTask) {
+			executionTime.record(System.nanoTime() - ((QueuedTask) runnable).startTime);
+		}
+	}
+	
+	/**
+	 * @return the task latencies recorded so far and the current state of the pool.
+	 */
+	public ExecutorStats getStats() {
+		return new ExecutorStats(System.nanoTime(), getPoolSize(), getActiveCount(), getQueue().size(),
+				getCompletedTaskCount(), getRejectedCount(), queueWait.snapshot(), executionTime.snapshot());
+	}
+	
+	/**
+	 * @return the number of tasks rejected so far, including queued tasks dropped to make room.
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+	
+	/**
+	 * Rejects a task that was just passed to the executor: a submitted task completes its
+	 * future exceptionally and any other task makes the call to <tt>execute</tt> throw.
+	 * 
+	 * @throws RejectedExecutionException if the task has no future to complete
+	 */
+	static void reject(Runnable runnable, ThreadPoolExecutor executor) {
+		RejectedExecutionException exception = new RejectedExecutionException(
+				"Task rejected from " + executor);
+		if (!completeExceptionally(runnable, executor, exception)) {
+			throw exception;
+		}
+	}
+	
+	/**
+	 * Rejects a task removed from the queue, whose submitter is no longer waiting on the call.
+	 * A submitted task completes its future exceptionally; any other task is only counted.
+	 */
+	static void rejectQueued(Runnable runnable, ThreadPoolExecutor executor) {
+		completeExceptionally(runnable, executor, new RejectedExecutionException(
+				"Queued task dropped from " + executor));
+	}
+	
+	/**
+	 * @return <tt>true</tt> if the task had a future that was completed with the exception.
+	 */
+	private static boolean completeExceptionally(Runnable runnable, ThreadPoolExecutor executor,
+			RejectedExecutionException exception) {
+		if (executor instanceof ThreadPoolExecutorImpl) {
+			((ThreadPoolExecutorImpl) executor).rejectedCount.increment();
+		}
+		Runnable task = unwrap(runnable);
+		if (task instanceof RejectableFutureTask) {
+			((RejectableFutureTask<?>) task).reject(exception);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return the task as it was passed to <tt>execute</tt>, or the future created by <tt>submit</tt>.
+	 */
+	private static Runnable unwrap(Runnable runnable) {
+		return (runnable instanceof QueuedTask) ? ((QueuedTask) runnable).getTask() : runnable;
+	}
+	
+	/**
+	 * Creates a work queue that starts the most urgent tasks first and that the submitting
+	 * threads and the pool's threads use without contending on a single lock, to pass to
+	 * {@link #ThreadPoolExecutorImpl(int, int, long, TimeUnit, BlockingQueue, ThreadFactory, RejectedExecutionHandler)}.
+	 * The order is relaxed, see {@link ConcurrentPriorityQueue}.
+	 * 
+	 * @param maxQueueSize the maximum number of queued tasks, or 0 for no limit
+	 * @param comparator orders the tasks as they were passed to <tt>execute</tt>, or the futures
+	 * 		  created by <tt>submit</tt>, most urgent first
+	 * @throws IllegalArgumentException if the maximum queue size is negative
+	 */
+	public static BlockingQueue<Runnable> newPriorityWorkQueue(int maxQueueSize, Comparator<? super Runnable> comparator) {
+		if (maxQueueSize < 0) {
+			throw new IllegalArgumentException("Max queue size is negative");
+		}
+		return new ConcurrentPriorityQueue<Runnable>((maxQueueSize == 0) ? Integer.MAX_VALUE : maxQueueSize,
+				(a, b) -> comparator.compare(unwrap(a), unwrap(b)));
+	}
+	
+	private static BlockingQueue<Runnable> newWorkQueue(int maxQueueSize) throws IllegalArgumentException {
+		if (maxQueueSize == 0) {
+			return new LinkedBlockingQueue<>();
+		}
+		else if (maxQueueSize > 0) {
+			return new ArrayBlockingQueue<Runnable>(maxQueueSize);
+		}
+		throw new IllegalArgumentException("Max queue size must be greater than 0");
+	}
+	
+	/**
+	 * Names each thread with the given prefix and a sequence number.
+	 */
+	static class ThreadFactoryImpl implements ThreadFactory {
+		private final String name;
+		private final boolean isDaemon;
+		
+		private final AtomicInteger uid = new AtomicInteger();
+		
+		ThreadFactoryImpl(String name, boolean isDaemon) {
+			this.name = name;
+			this.isDaemon = isDaemon;
+		}
+		
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread daemonThread = new Thread(r, (name + uid.getAndIncrement()));
+			daemonThread.setDaemon(isDaemon);
+			return daemonThread;
+		}
+	}
+	
+	/**
+	 * A task waiting in the queue, with the time it was queued.
+	 */
+	static final class QueuedTask implements Runnable {
+		private final Runnable task;
+		private final long queuedTime = System.nanoTime();
+		/** set by the worker that runs the task, in beforeExecute */
+		private long startTime;
+		
+		private QueuedTask(Runnable task) {
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			task.run();
+		}
+		
+		Runnable getTask() {
+			return task;
+		}
+		
+		/**
+		 * @return the <tt>System.nanoTime()</tt> at which the task was queued.
+		 */
+		long getQueuedTime() {
+			return queuedTime;
+		}
+	}
+	
+	/**
+	 * The future of a submitted task, which a rejection completes exceptionally.
+	 */
+	private static final class RejectableFutureTask<T> extends FutureTask<T> {
+		private RejectableFutureTask(Runnable runnable, T value) {
+			super(runnable, value);
+		}
+		
+		private RejectableFutureTask(Callable<T> callable) {
+			super(callable);
+		}
+		
+		private void reject(RejectedExecutionException exception) {
+			setException(exception);
+		}
+	}
+}
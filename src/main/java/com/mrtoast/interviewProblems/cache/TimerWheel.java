@@ -0,0 +1,219 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel that schedules {@link ExpiringKey}s for expiration.
+ * <p>
+ * Each level is an array of buckets, where a bucket is a circular doubly linked list
+ * threaded through the keys themselves, so scheduling, rescheduling and descheduling a key
+ * are O(1) and a key is never in the wheel more than once. Keys that expire far in the future
+ * are placed in the coarser levels and cascade down to the finer ones as the wheel advances.
+ * <pre>
+ * Level   Tick       Buckets   Span
+ * -----   --------   -------   -----------
+ *     0   16 ms           64   ~1 second
+ *     1   ~1 sec          64   ~1 minute
+ *     2   ~1 min          64   ~70 minutes
+ *     3   ~70 min         64   ~3 days
+ *     4   ~3 days          1   overflow
+ * </pre>
+ * This class is not thread-safe; callers must guard it with their own lock.
+ */
+final class TimerWheel<K> {
+
+	/** the number of buckets in each level */
+	private static final int[] BUCKETS = { 64, 64, 64, 64, 1 };
+
+	/** the power of two tick duration, in milliseconds, of each level */
+	private static final int[] SHIFT = { 4, 10, 16, 22, 28 };
+
+	private final ExpiringKey<K>[][] wheel;
+	/** the time the wheel has advanced to, though buckets may remain to be visited */
+	private long currentTimeMillis;
+	/** the tick of each level whose bucket is visited first by the next advance */
+	private final long[] ticks;
+	/** whether each level's visit ran out of budget, leaving keys in the bucket it stopped in */
+	private final boolean[] isPartial;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	TimerWheel(long currentTimeMillis) {
+		this.currentTimeMillis = currentTimeMillis;
+		this.ticks = new long[BUCKETS.length];
+		this.isPartial = new boolean[BUCKETS.length];
+		this.wheel = new ExpiringKey[BUCKETS.length][];
+		for (int i=0; i<BUCKETS.length; i++) {
+			ticks[i] = currentTimeMillis >>> SHIFT[i];
+			wheel[i] = new ExpiringKey[BUCKETS[i]];
+			for (int j=0; j<BUCKETS[i]; j++) {
+				wheel[i][j] = newSentinel();
+			}
+		}
+	}
+
+	private static <K> ExpiringKey<K> newSentinel() {
+		ExpiringKey<K> sentinel = new ExpiringKey<>(null, 0);
+		sentinel.previousInWheel = sentinel;
+		sentinel.nextInWheel = sentinel;
+		return sentinel;
+	}
+
+	/**
+	 * Schedules the key for expiration at its expiring time, moving it if it is already scheduled.
+	 *
+	 * @param key ExpiringKey
+	 */
+	void schedule(ExpiringKey<K> key) {
+		deschedule(key);
+		ExpiringKey<K> sentinel = findBucket(key.getExpiringTime());
+		key.previousInWheel = sentinel.previousInWheel;
+		key.nextInWheel = sentinel;
+		sentinel.previousInWheel.nextInWheel = key;
+		sentinel.previousInWheel = key;
+	}
+
+	/**
+	 * Removes the key from the wheel if it is scheduled.
+	 *
+	 * @param key ExpiringKey
+	 */
+	void deschedule(ExpiringKey<K> key) {
+		if (key.nextInWheel != null) {
+			key.nextInWheel.previousInWheel = key.previousInWheel;
+			key.previousInWheel.nextInWheel = key.nextInWheel;
+			key.nextInWheel = null;
+			key.previousInWheel = null;
+		}
+	}
+
+	/**
+	 * @return the sentinel of the bucket for the expiring time, which is clamped to the
+	 * 		   wheel's current time so that overdue keys are found by the next advance.
+	 */
+	private ExpiringKey<K> findBucket(long expiringTime) {
+		long time = Math.max(expiringTime, currentTimeMillis);
+		long duration = time - currentTimeMillis;
+		int last = BUCKETS.length - 1;
+		for (int i=0; i<last; i++) {
+			if (duration < (1L << SHIFT[i+1])) {
+				int index = (int) ((time >>> SHIFT[i]) & (BUCKETS[i] - 1));
+				return wheel[i][index];
+			}
+		}
+		return wheel[last][0];
+	}
+
+	/**
+	 * Advances the wheel to the current time, passing every expired key to the evictor and
+	 * cascading the unexpired keys of the visited buckets down to the finer levels.
+	 * The evictor may reschedule or deschedule the key it receives.
+	 *
+	 * @param currentTimeMillis the current time in milliseconds since the epoch
+	 * @param evictor receives each expired key after it has been descheduled
+	 */
+	void advance(long currentTimeMillis, Consumer<ExpiringKey<K>> evictor) {
+		advance(currentTimeMillis, evictor, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Advances the wheel to the current time, visiting at most <tt>budget</tt> keys, whether
+	 * they are passed to the evictor or cascaded down to a finer level. If the budget runs out
+	 * the wheel records the bucket it stopped in, with its unvisited keys, and the next advance
+	 * resumes from there rather than rescanning the buckets already visited.
+	 *
+	 * @param currentTimeMillis the current time in milliseconds since the epoch
+	 * @param evictor receives each expired key after it has been descheduled
+	 * @param budget the maximum number of keys to visit
+	 * @return <tt>true</tt> if the wheel reached the current time, <tt>false</tt> if the
+	 * 		   budget ran out first
+	 */
+	boolean advance(long currentTimeMillis, Consumer<ExpiringKey<K>> evictor, int budget) {
+		if (currentTimeMillis > this.currentTimeMillis) {
+			this.currentTimeMillis = currentTimeMillis;
+		}
+
+		int remaining = budget;
+		for (int i=0; i<BUCKETS.length; i++) {
+			long currentTicks = this.currentTimeMillis >>> SHIFT[i];
+			// the current bucket of the finest level is always visited so keys expire on time
+			if (i > 0 && ticks[i] == currentTicks && !isPartial[i]) {
+				continue;
+			}
+			remaining = expire(i, currentTicks, evictor, remaining);
+			isPartial[i] = remaining < 0;
+			if (isPartial[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Visits the buckets of the level from the tick it stopped at through the current tick,
+	 * recording the tick of the bucket it stops in if the budget runs out.
+	 *
+	 * @return the unused budget, or -1 if the budget ran out before every bucket was visited
+	 */
+	private int expire(int level, long currentTicks, Consumer<ExpiringKey<K>> evictor, int budget) {
+		ExpiringKey<K>[] buckets = wheel[level];
+		int mask = buckets.length - 1;
+		// after a jump longer than the level's span every bucket is visited once
+		long start = Math.max(ticks[level], currentTicks - mask);
+
+		for (long tick=start; tick<=currentTicks; tick++) {
+			ExpiringKey<K> sentinel = buckets[(int) (tick & mask)];
+			ExpiringKey<K> key = sentinel.nextInWheel;
+			ExpiringKey<K> last = sentinel.previousInWheel;
+			// detach the whole bucket so keys rescheduled into it are not visited twice
+			sentinel.previousInWheel = sentinel;
+			sentinel.nextInWheel = sentinel;
+
+			while (key != sentinel) {
+				if (budget == 0) {
+					// put the unvisited keys back ahead of those rescheduled into the bucket,
+					// so the next advance visits them first
+					last.nextInWheel = sentinel.nextInWheel;
+					sentinel.nextInWheel.previousInWheel = last;
+					key.previousInWheel = sentinel;
+					sentinel.nextInWheel = key;
+					ticks[level] = tick;
+					return -1;
+				}
+
+				ExpiringKey<K> next = key.nextInWheel;
+				key.previousInWheel = null;
+				key.nextInWheel = null;
+
+				budget--;
+				if (key.getExpiringTime() <= currentTimeMillis) {
+					evictor.accept(key);
+				}
+				else {
+					schedule(key);
+				}
+				key = next;
+			}
+		}
+		ticks[level] = currentTicks;
+		return budget;
+	}
+
+	/**
+	 * Removes all keys from the wheel.
+	 */
+	void clear() {
+		for (ExpiringKey<K>[] buckets : wheel) {
+			for (ExpiringKey<K> sentinel : buckets) {
+				ExpiringKey<K> key = sentinel.nextInWheel;
+				while (key != sentinel) {
+					ExpiringKey<K> next = key.nextInWheel;
+					key.previousInWheel = null;
+					key.nextInWheel = null;
+					key = next;
+				}
+				sentinel.previousInWheel = sentinel;
+				sentinel.nextInWheel = sentinel;
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams the keys of a recorded access trace in batches, so traces larger than memory can
+ * be replayed by a {@link TraceSimulator}.
+ * <p>
+ * A {@link Format#BINARY} trace is a sequence of big-endian 8-byte keys, the most compact form.
+ * A {@link Format#TEXT} trace has one access per line, whose key is the first token of the
+ * line; further tokens, such as a timestamp or a size, are ignored, as are blank lines.
+ * Decimal tokens are read as numbers and any other token is hashed to a 64-bit key, so that
+ * logs of string keys can be replayed without converting them first. Both formats are decoded
+ * straight from a byte buffer, without creating an object per key.
+ */
+public final class TraceReader implements Closeable {
+	
+	/**
+	 * The encoding of a trace file.
+	 */
+	public enum Format {
+		/** one key per line, as a decimal number or any other token */
+		TEXT,
+		
+		/** big-endian 8-byte keys */
+		BINARY
+	}
+	
+	/** 64 KB - the read buffer, which also bounds the length of a text line */
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final InputStream in;
+	private final Format format;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	private boolean isEndOfStream;
+	
+	/**
+	 * @throws IOException if the file cannot be opened
+	 */
+	public TraceReader(Path path, Format format) throws IOException {
+		this(Files.newInputStream(path), format);
+	}
+	
+	/**
+	 * @param in the trace, which is closed with this reader
+	 * @param format the encoding of the trace
+	 */
+	public TraceReader(InputStream in, Format format) {
+		this.in = in;
+		this.format = format;
+	}
+	
+	/**
+	 * Reads the next keys of the trace.
+	 * 
+	 * @param keys receives the keys
+	 * @return the number of keys read, or -1 at the end of the trace.
+	 * @throws IOException if the trace cannot be read, or is malformed
+	 */
+	public int read(long[] keys) throws IOException {
+		int count = (format == Format.BINARY) ? readBinary(keys) : readText(keys);
+		return (count == 0 && isEndOfStream && position == limit) ? -1 : count;
+	}
+	
+	private int readBinary(long[] keys) throws IOException {
+		int count = 0;
+		while (count < keys.length) {
+			if (limit - position < Long.BYTES) {
+				if (fill()) {
+					continue;
+				}
+				if (position < limit) {
+					throw new IOException("Binary trace ends within a key");
+				}
+				break;
+			}
+			long key = 0;
+			for (int i=0; i<Long.BYTES; i++) {
+				key = (key << 8) | (buffer[position++] & 0xFF);
+			}
+			keys[count++] = key;
+		}
+		return count;
+	}
+	
+	private int readText(long[] keys) throws IOException {
+		int count = 0;
+		while (count < keys.length) {
+			int end = indexOfLineEnd();
+			if (end < 0) {
+				if (limit - position == buffer.length) {
+					throw new IOException("Text trace has a line longer than " + buffer.length + " bytes");
+				}
+				if (fill()) {
+					continue;
+				}
+				if (position == limit) {
+					break;
+				}
+				// the last line has no line break
+				end = limit;
+			}
+			int start = position;
+			position = Math.min(end + 1, limit);
+			while (start < end && isSeparator(buffer[start])) {
+				start++;
+			}
+			int tokenEnd = start;
+			while (tokenEnd < end && !isSeparator(buffer[tokenEnd])) {
+				tokenEnd++;
+			}
+			if (tokenEnd > start) {
+				keys[count++] = parseKey(start, tokenEnd);
+			}
+		}
+		return count;
+	}
+	
+	private int indexOfLineEnd() {
+		for (int i=position; i<limit; i++) {
+			if (buffer[i] == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static boolean isSeparator(byte b) {
+		return b == ' ' || b == '\t' || b == ',' || b == '\r';
+	}
+	
+	/**
+	 * @return the token as a decimal number, or its 64-bit FNV-1a hash if it is not one.
+	 */
+	private long parseKey(int start, int end) {
+		boolean isNegative = buffer[start] == '-';
+		int digitStart = isNegative ? start + 1 : start;
+		// up to 18 digits cannot overflow a long
+		if (digitStart < end && end - digitStart <= 18) {
+			long key = 0;
+			int i = digitStart;
+			while (i < end && buffer[i] >= '0' && buffer[i] <= '9') {
+				key = key * 10 + (buffer[i++] - '0');
+			}
+			if (i == end) {
+				return isNegative ? -key : key;
+			}
+		}
+		long hash = 0xCBF29CE484222325L;
+		for (int i=start; i<end; i++) {
+			hash = (hash ^ (buffer[i] & 0xFF)) * 0x100000001B3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Moves the unread bytes to the front of the buffer and reads more after them.
+	 * 
+	 * @return <tt>true</tt> if any bytes were read.
+	 */
+	private boolean fill() throws IOException {
+		if (isEndOfStream) {
+			return false;
+		}
+		System.arraycopy(buffer, position, buffer, 0, limit - position);
+		limit -= position;
+		position = 0;
+		int read = in.read(buffer, limit, buffer.length - limit);
+		if (read < 0) {
+			isEndOfStream = true;
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
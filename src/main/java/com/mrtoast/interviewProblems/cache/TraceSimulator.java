@@ -0,0 +1,197 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Replays a recorded access trace against eviction policies of several sizes, to choose a
+ * policy and a maximum size from real traffic rather than by guesswork.
+ * <p>
+ * The trace is read once, in batches, and each batch is replayed against every policy and
+ * size in turn, so traces larger than memory are simulated in a single pass. Each policy is
+ * timed on its own batches only, which makes its throughput comparable with the others'.
+ * The results for one policy across the sizes form its hit rate curve.
+ * <p>
+ * From the command line:
+ * <pre>
+ * TraceSimulator trace-file text|binary size[,size...]
+ * </pre>
+ * replays the trace against the policies of {@link SimulatedPolicies} and prints the results.
+ */
+public class TraceSimulator {
+	
+	/** 65536 - the number of keys replayed against each policy at a time */
+	static final int BATCH_SIZE = 1 << 16;
+	
+	private final int[] sizes;
+	private final Map<String, IntFunction<? extends SimulatedPolicy>> policies = new LinkedHashMap<>();
+	
+	/**
+	 * @param sizes the maximum sizes to simulate every policy with
+	 * @throws IllegalArgumentException if there are no sizes or a size is not positive
+	 */
+	public TraceSimulator(int... sizes) {
+		if (sizes.length == 0) {
+			throw new IllegalArgumentException("No sizes to simulate");
+		}
+		for (int size : sizes) {
+			if (size <= 0) {
+				throw new IllegalArgumentException("Size must be greater than 0: " + size);
+			}
+		}
+		this.sizes = sizes.clone();
+	}
+	
+	/**
+	 * @param name the name of the policy in the results
+	 * @param factory creates the policy for each maximum size
+	 */
+	public void addPolicy(String name, IntFunction<? extends SimulatedPolicy> factory) {
+		policies.put(name, factory);
+	}
+	
+	/**
+	 * Replays the whole trace against a new instance of every policy for every size.
+	 * 
+	 * @return the results, by policy in the order they were added and then by size
+	 * @throws IOException if the trace cannot be read
+	 */
+	public List<Result> run(TraceReader trace) throws IOException {
+		List<Simulation> simulations = new ArrayList<>(policies.size() * sizes.length);
+		for (Map.Entry<String, IntFunction<? extends SimulatedPolicy>> policy : policies.entrySet()) {
+			for (int size : sizes) {
+				simulations.add(new Simulation(policy.getKey(), size, policy.getValue().apply(size)));
+			}
+		}
+		long[] batch = new long[BATCH_SIZE];
+		long eventCount = 0;
+		int count;
+		while ((count = trace.read(batch)) >= 0) {
+			for (Simulation simulation : simulations) {
+				simulation.replay(batch, count);
+			}
+			eventCount += count;
+		}
+		List<Result> results = new ArrayList<>(simulations.size());
+		for (Simulation simulation : simulations) {
+			results.add(new Result(simulation.name, simulation.size, eventCount, simulation.hitCount,
+					simulation.elapsedNanos));
+		}
+		return results;
+	}
+	
+	/**
+	 * One policy of one size, with the hits and time it has accumulated.
+	 */
+	private static final class Simulation {
+		private final String name;
+		private final int size;
+		private final SimulatedPolicy policy;
+		private long hitCount;
+		private long elapsedNanos;
+		
+		Simulation(String name, int size, SimulatedPolicy policy) {
+			this.name = name;
+			this.size = size;
+			this.policy = policy;
+		}
+		
+		void replay(long[] keys, int count) {
+			long hits = 0;
+			long startTime = System.nanoTime();
+			for (int i=0; i<count; i++) {
+				if (policy.record(keys[i])) {
+					hits++;
+				}
+			}
+			elapsedNanos += System.nanoTime() - startTime;
+			hitCount += hits;
+		}
+	}
+	
+	/**
+	 * The outcome of replaying a trace against one policy of one size.
+	 */
+	public static final class Result {
+		private final String policyName;
+		private final int maxSize;
+		private final long eventCount;
+		private final long hitCount;
+		private final long elapsedNanos;
+		
+		Result(String policyName, int maxSize, long eventCount, long hitCount, long elapsedNanos) {
+			this.policyName = policyName;
+			this.maxSize = maxSize;
+			this.eventCount = eventCount;
+			this.hitCount = hitCount;
+			this.elapsedNanos = elapsedNanos;
+		}
+		
+		public String getPolicyName() {
+			return policyName;
+		}
+		
+		public int getMaxSize() {
+			return maxSize;
+		}
+		
+		public long getEventCount() {
+			return eventCount;
+		}
+		
+		public long getHitCount() {
+			return hitCount;
+		}
+		
+		/**
+		 * @return the fraction of the accesses that hit, or 0 for an empty trace.
+		 */
+		public double getHitRate() {
+			return (eventCount == 0) ? 0 : (double) hitCount / eventCount;
+		}
+		
+		/**
+		 * @return the number of accesses replayed per second, or 0 if no time was measured.
+		 */
+		public double getThroughput() {
+			return (elapsedNanos == 0) ? 0 : (double) eventCount * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%-16s %10d %8.2f%% %14.0f/s", policyName, maxSize, getHitRate() * 100,
+					getThroughput());
+		}
+	}
+	
+	/**
+	 * @param args the trace file, its format and the comma separated sizes
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3) {
+			System.err.println("Usage: TraceSimulator trace-file text|binary size[,size...]");
+			System.exit(1);
+		}
+		TraceReader.Format format = TraceReader.Format.valueOf(args[1].toUpperCase());
+		int[] sizes = Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray();
+		
+		TraceSimulator simulator = new TraceSimulator(sizes);
+		simulator.addPolicy("lru", SimulatedPolicies.lru());
+		simulator.addPolicy("fifo", SimulatedPolicies.fifo());
+		simulator.addPolicy("window-tinylfu", SimulatedPolicies.windowTinyLfu());
+		simulator.addPolicy("long-key-lru", SimulatedPolicies.longKeyLru());
+		try (TraceReader trace = new TraceReader(Paths.get(args[0]), format)) {
+			System.out.println(String.format("%-16s %10s %9s %16s", "policy", "size", "hit rate", "throughput"));
+			for (Result result : simulator.run(trace)) {
+				System.out.println(result);
+			}
+		}
+	}
+}
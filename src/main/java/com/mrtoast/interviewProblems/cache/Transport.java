@@ -0,0 +1,39 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Carries the request and response messages between the nodes of a {@link PartitionedCache}.
+ * <p>
+ * A transport identifies each node by a string, such as <tt>host:port</tt>, and delivers each
+ * request to the handler of the addressed node, returning the handler's response. Handlers are
+ * called concurrently and may send requests of their own.
+ *
+ * @see SocketTransport
+ */
+public interface Transport extends Closeable {
+	
+	/**
+	 * @return the identifier of this node, by which the other nodes address it.
+	 */
+	String getLocalNode();
+	
+	/**
+	 * Starts delivering the requests sent to this node to the handler.
+	 * 
+	 * @param handler returns the response to each request
+	 * @throws IOException if the transport cannot accept requests
+	 * @throws IllegalStateException if the transport has already been started
+	 */
+	void start(Function<byte[], byte[]> handler) throws IOException;
+	
+	/**
+	 * Sends the request to the node and waits for its response.
+	 * 
+	 * @return the response of the node's handler
+	 * @throws IOException if the node cannot be reached or fails to respond
+	 */
+	byte[] send(String node, byte[] request) throws IOException;
+}
@@ -0,0 +1,215 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each task on a new virtual thread, with at most <tt>maxConcurrency</tt> tasks running
+ * at the same time.
+ * <p>
+ * Tasks are never queued in the executor or rejected for being too many: every task gets its
+ * own thread at once, which waits for a permit before it runs. A virtual thread blocked on the
+ * permit or on I/O releases its carrier thread, so thousands of pending loads cost little more
+ * than their stacks, while the permits bound the load on the backend.
+ * <p>
+ * Virtual threads are looked up at runtime, so this class also works on runtimes without them.
+ * There the tasks run on a pool of <tt>maxConcurrency</tt> daemon platform threads instead, and
+ * wait in an unbounded queue rather than on their own threads, since a platform thread per
+ * pending task would cost an OS thread each; see {@link #isVirtual()}.
+ * <p>
+ * {@link #shutdownNow()} returns the tasks that had not started running. A task interrupted
+ * while it waits for a permit is not run, and is cancelled if it is a {@link Future}, as the
+ * tasks of {@link #submit(Runnable)} are, so no caller waits on it forever.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+	/** 1000 - the default maximum number of tasks running at the same time */
+	static final int DEFAULT_MAX_CONCURRENCY = 1000;
+	
+	/** 60 seconds - how long an idle platform thread is kept when there are no virtual threads */
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private final ExecutorService executor;
+	private final boolean isVirtual;
+	private final Semaphore permits;
+	private final int maxConcurrency;
+	/** the tasks accepted but not yet running, which shutdownNow claims */
+	private final Set<PendingTask> pendingTasks = ConcurrentHashMap.newKeySet();
+
+	public VirtualThreadExecutor() {
+		this(DEFAULT_MAX_CONCURRENCY);
+	}
+
+	/**
+	 * @param maxConcurrency the maximum number of tasks running at the same time
+	 * @throws IllegalArgumentException if the maximum concurrency is not positive
+	 */
+	public VirtualThreadExecutor(int maxConcurrency) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Maximum concurrency must be greater than 0");
+		}
+		ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+		this.isVirtual = (virtualExecutor != null);
+		this.executor = isVirtual ? virtualExecutor : newPlatformThreadPool(maxConcurrency);
+		this.permits = new Semaphore(maxConcurrency);
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * @return <tt>Executors.newVirtualThreadPerTaskExecutor()</tt>, or <tt>null</tt> if the
+	 * 		   runtime has no virtual threads.
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			// not available, or a preview feature that has not been enabled
+			return null;
+		}
+	}
+	
+	/**
+	 * @return a pool of at most <tt>maxConcurrency</tt> daemon threads, which exit when idle.
+	 */
+	private static ExecutorService newPlatformThreadPool(int maxConcurrency) {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+				KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				new ThreadPoolExecutorImpl.ThreadFactoryImpl("VirtualWorker", true));
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Starts the task on its own thread, where it waits for a permit before running.
+	 *
+	 * @throws RejectedExecutionException if the executor has been shut down
+	 */
+	@Override
+	public void execute(Runnable command) {
+		if (command == null) {
+			throw new NullPointerException();
+		}
+		PendingTask task = new PendingTask(command);
+		pendingTasks.add(task);
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			pendingTasks.remove(task);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return <tt>true</tt> if the tasks run on virtual threads, <tt>false</tt> if the runtime
+	 * 		   has none and they run on platform threads.
+	 */
+	public boolean isVirtual() {
+		return isVirtual;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * @return the number of tasks currently running, not counting those waiting for a permit.
+	 */
+	public int getActiveCount() {
+		return maxConcurrency - permits.availablePermits();
+	}
+
+	/**
+	 * @return the number of tasks accepted but not yet running, as an estimate.
+	 */
+	public int getWaitingCount() {
+		return pendingTasks.size();
+	}
+
+	@Override
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Claims the tasks that have not started before interrupting the running ones, so that
+	 * each task is either returned or has run.
+	 *
+	 * @return the tasks that had not started running, as passed to <tt>execute</tt>
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		executor.shutdown();
+		List<Runnable> tasks = new ArrayList<>();
+		for (PendingTask task : pendingTasks) {
+			if (pendingTasks.remove(task)) {
+				tasks.add(task.command);
+			}
+		}
+		executor.shutdownNow();
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return executor.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return executor.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+	
+	/**
+	 * A task that waits for a permit, then runs unless shutdownNow has claimed it first.
+	 */
+	private final class PendingTask implements Runnable {
+		private final Runnable command;
+		
+		PendingTask(Runnable command) {
+			this.command = command;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				permits.acquire();
+			}
+			catch (InterruptedException e) {
+				if (pendingTasks.remove(this) && (command instanceof Future)) {
+					// not returned by shutdownNow, so fail it rather than leave it pending
+					((Future<?>) command).cancel(false);
+				}
+				Thread.currentThread().interrupt();
+				return;
+			}
+			try {
+				if (pendingTasks.remove(this)) {
+					command.run();
+				}
+			}
+			finally {
+				permits.release();
+			}
+		}
+	}
+}
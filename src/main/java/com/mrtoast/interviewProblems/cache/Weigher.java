@@ -0,0 +1,16 @@
+package com.mrtoast.interviewProblems.cache;
+
+/**
+ * Calculates the weight of a cache entry, which counts against the cache's maximum weight.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+	
+	/**
+	 * @param key K
+	 * @param value V
+	 * @return the non-negative weight of the entry, for example its approximate size in bytes.
+	 * 		   The same key and value must always have the same weight.
+	 */
+	int weigh(K key, V value);
+}
@@ -0,0 +1,348 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Tracks the keys of a {@link Cache} for the {@link AdmissionPolicy#WINDOW_TINY_LFU} policy.
+ * <p>
+ * New keys enter an LRU window holding 1% of the capacity. Keys that fall out of the window
+ * become candidates in the probation segment of the main region, where the eldest probation
+ * key is the eviction victim. When the cache overflows the candidate is only retained if the
+ * {@link FrequencySketch} has seen it more often than the victim. A probation key that is read
+ * again is promoted to the protected segment, which holds 80% of the main region, so a long
+ * scan of one-off keys can only flush the window and the probation segment.
+ * <p>
+ * The three LRU lists are threaded through parallel arrays indexed by node number, and keys
+ * are found through an open-addressed table of node numbers kept at most half full, so a key
+ * costs its reference, two <tt>int</tt> links, a region byte and two to four <tt>int</tt> index
+ * slots: 21 to 29 bytes, against some 80 for a <tt>HashMap</tt> entry and a linked node. The
+ * arrays grow by doubling up to one node more than the cache's capacity. Keys removed through
+ * the cache's views are not reported, so if every node is in use the eldest key is forgotten
+ * to make room.
+ * <p>
+ * This class is not thread-safe; it is guarded by whatever guards its cache.
+ */
+final class WindowTinyLfuPolicy<K> {
+
+	/** 1 - the percentage of the capacity used by the window */
+	private static final int WINDOW_PERCENTAGE = 1;
+
+	/** 80 - the percentage of the main region used by the protected segment */
+	private static final int PROTECTED_PERCENTAGE = 80;
+
+	/** 16 - the initial length of the node arrays */
+	private static final int INITIAL_NODES = 16;
+
+	/** the regions, which are also the node numbers of their lists' sentinels */
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+	/** the region of a node on the free list */
+	private static final byte FREE = 3;
+
+	/** 3 - the number of sentinel nodes, one per list */
+	private static final int SENTINELS = 3;
+
+	/** the node number of an empty index slot, a missing key or no candidate */
+	private static final int NONE = -1;
+
+	private final FrequencySketch<K> sketch;
+	private final int maxNodes;
+
+	private Object[] keys;
+	private byte[] regions;
+	private int[] previous;
+	private int[] next;
+	/** the node number of each key at or after the slot of its hash, or NONE */
+	private int[] index;
+	/** the number of node numbers used so far, sentinels included */
+	private int nodeCount = SENTINELS;
+	/** the first node of the free list, chained through next */
+	private int freeNode = NONE;
+
+	private final int maxWindowSize;
+	private final int maxProtectedSize;
+	private int windowSize;
+	private int protectedSize;
+
+	/** the most recent key moved from the window into probation, which competes with the victim */
+	private int candidate = NONE;
+
+	WindowTinyLfuPolicy(int maxCapacity) {
+		this.sketch = new FrequencySketch<>(maxCapacity);
+		this.maxWindowSize = Math.max(1, (int) ((long) maxCapacity * WINDOW_PERCENTAGE / 100));
+		this.maxProtectedSize = (int) ((long) Math.max(0, maxCapacity - maxWindowSize) * PROTECTED_PERCENTAGE / 100);
+		// the cache holds one entry more than its capacity until it evicts
+		this.maxNodes = (int) Math.min((long) maxCapacity + 1 + SENTINELS, 1 << 29);
+		resize(Math.min(INITIAL_NODES, maxNodes));
+		clear();
+	}
+
+	/**
+	 * Records a read of the key, whether or not it is present in the cache.
+	 */
+	void recordAccess(Object key) {
+		sketch.increment(key);
+		int node = find(key);
+		if (node == NONE) {
+			return;
+		}
+		switch (regions[node]) {
+		case WINDOW:
+			moveToTail(node, WINDOW);
+			break;
+		case PROBATION:
+			promote(node);
+			break;
+		default:
+			moveToTail(node, PROTECTED);
+		}
+	}
+
+	/**
+	 * Records a key that has been added to the cache.
+	 */
+	void recordInsertion(K key) {
+		sketch.increment(key);
+		int node = find(key);
+		if (node == NONE) {
+			node = allocate(key);
+		}
+		else {
+			leaveRegion(node);
+		}
+		regions[node] = WINDOW;
+		linkLast(node, WINDOW);
+		windowSize++;
+
+		while (windowSize > maxWindowSize) {
+			int eldest = next[WINDOW];
+			windowSize--;
+			regions[eldest] = PROBATION;
+			moveToTail(eldest, PROBATION);
+			candidate = eldest;
+		}
+	}
+
+	/**
+	 * Records a key that has been removed from the cache.
+	 */
+	void recordRemoval(Object key) {
+		int node = find(key);
+		if (node != NONE) {
+			release(node);
+		}
+	}
+
+	/**
+	 * Chooses and forgets the key to evict once the cache is over capacity.
+	 *
+	 * @return the key to evict, or <tt>null</tt> if no keys are being tracked.
+	 */
+	@SuppressWarnings("unchecked")
+	K evict() {
+		int victim = eldestNode();
+		if (victim == NONE) {
+			return null;
+		}
+
+		int evicted = victim;
+		if (candidate != NONE && candidate != victim
+				&& sketch.frequency(keys[candidate]) <= sketch.frequency(keys[victim])) {
+			evicted = candidate;
+		}
+		candidate = NONE;
+		K key = (K) keys[evicted];
+		release(evicted);
+		return key;
+	}
+
+	void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(index, NONE);
+		for (int sentinel=WINDOW; sentinel<=PROTECTED; sentinel++) {
+			previous[sentinel] = sentinel;
+			next[sentinel] = sentinel;
+		}
+		nodeCount = SENTINELS;
+		freeNode = NONE;
+		windowSize = 0;
+		protectedSize = 0;
+		candidate = NONE;
+	}
+
+	/**
+	 * Moves a probation node to the protected segment, demoting the eldest protected
+	 * nodes back to probation if the segment overflows.
+	 */
+	private void promote(int node) {
+		if (node == candidate) {
+			candidate = NONE;
+		}
+		regions[node] = PROTECTED;
+		moveToTail(node, PROTECTED);
+		protectedSize++;
+
+		while (protectedSize > maxProtectedSize) {
+			int eldest = next[PROTECTED];
+			protectedSize--;
+			regions[eldest] = PROBATION;
+			moveToTail(eldest, PROBATION);
+		}
+	}
+
+	/**
+	 * @return the probation victim, or the eldest protected or window node if probation is
+	 * 		   empty, or NONE if no keys are being tracked.
+	 */
+	private int eldestNode() {
+		if (next[PROBATION] != PROBATION) {
+			return next[PROBATION];
+		}
+		if (next[PROTECTED] != PROTECTED) {
+			return next[PROTECTED];
+		}
+		return (next[WINDOW] != WINDOW) ? next[WINDOW] : NONE;
+	}
+
+	/**
+	 * @return a node holding the key and added to the index, but not yet linked into a list.
+	 */
+	private int allocate(Object key) {
+		if (freeNode == NONE && nodeCount == keys.length) {
+			if (keys.length < maxNodes) {
+				resize((int) Math.min(2L * keys.length, maxNodes));
+			}
+			else {
+				// only possible if keys removed through the views are still tracked
+				release(eldestNode());
+			}
+		}
+		int node;
+		if (freeNode != NONE) {
+			node = freeNode;
+			freeNode = next[node];
+		}
+		else {
+			node = nodeCount++;
+		}
+		keys[node] = key;
+		addToIndex(node);
+		return node;
+	}
+
+	/**
+	 * Removes the node from its list and the index, and puts it on the free list.
+	 */
+	private void release(int node) {
+		leaveRegion(node);
+		removeFromIndex(node);
+		keys[node] = null;
+		regions[node] = FREE;
+		next[node] = freeNode;
+		freeNode = node;
+	}
+
+	private void leaveRegion(int node) {
+		if (node == candidate) {
+			candidate = NONE;
+		}
+		if (regions[node] == WINDOW) {
+			windowSize--;
+		}
+		else if (regions[node] == PROTECTED) {
+			protectedSize--;
+		}
+		unlink(node);
+	}
+
+	private void unlink(int node) {
+		next[previous[node]] = next[node];
+		previous[next[node]] = previous[node];
+	}
+
+	private void linkLast(int node, int sentinel) {
+		previous[node] = previous[sentinel];
+		next[node] = sentinel;
+		next[previous[sentinel]] = node;
+		previous[sentinel] = node;
+	}
+
+	private void moveToTail(int node, int sentinel) {
+		unlink(node);
+		linkLast(node, sentinel);
+	}
+
+	/**
+	 * @return the node holding the key, or NONE if the key is not being tracked.
+	 */
+	private int find(Object key) {
+		int mask = index.length - 1;
+		for (int slot=slotOf(key); ; slot=(slot + 1) & mask) {
+			int node = index[slot];
+			if (node == NONE || Objects.equals(keys[node], key)) {
+				return node;
+			}
+		}
+	}
+
+	private void addToIndex(int node) {
+		int mask = index.length - 1;
+		int slot = slotOf(keys[node]);
+		while (index[slot] != NONE) {
+			slot = (slot + 1) & mask;
+		}
+		index[slot] = node;
+	}
+
+	/**
+	 * Empties the node's slot and moves later nodes of the same run back into it, so that no
+	 * lookup stops at the gap before reaching its key.
+	 */
+	private void removeFromIndex(int node) {
+		int mask = index.length - 1;
+		int gap = slotOf(keys[node]);
+		while (index[gap] != node) {
+			gap = (gap + 1) & mask;
+		}
+		for (int slot=(gap + 1) & mask; index[slot] != NONE; slot=(slot + 1) & mask) {
+			int home = slotOf(keys[index[slot]]);
+			// the node may fill the gap if the gap lies between its home slot and its slot
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				index[gap] = index[slot];
+				gap = slot;
+			}
+		}
+		index[gap] = NONE;
+	}
+
+	private int slotOf(Object key) {
+		return FrequencySketch.spread(Objects.hashCode(key)) & (index.length - 1);
+	}
+
+	/**
+	 * Copies the nodes into arrays of the given length and rebuilds the index for it.
+	 */
+	private void resize(int length) {
+		if (keys == null) {
+			keys = new Object[length];
+			regions = new byte[length];
+			previous = new int[length];
+			next = new int[length];
+		}
+		else {
+			keys = Arrays.copyOf(keys, length);
+			regions = Arrays.copyOf(regions, length);
+			previous = Arrays.copyOf(previous, length);
+			next = Arrays.copyOf(next, length);
+		}
+		index = new int[Integer.highestOneBit(2 * length - 1) << 1];
+		Arrays.fill(index, NONE);
+		for (int node=SENTINELS; node<nodeCount; node++) {
+			if (regions[node] != FREE) {
+				addToIndex(node);
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on workers that each own a deque of tasks and steal from each other when idle.
+ * <p>
+ * A task submitted by one of this executor's own workers, such as a subtask fanned out by a
+ * bulk load, is pushed onto that worker's deque without touching any shared queue, and is
+ * usually run by the same worker while its data is still in cache. Idle workers take tasks
+ * from the other end of a busy worker's deque. Tasks submitted by other threads enter
+ * through shared submission queues. Unlike a {@link ThreadPoolExecutorImpl} the queues are
+ * unbounded, so tasks are only rejected once the executor has been shut down.
+ * <p>
+ * A task that throws is reported to the worker's {@link Thread.UncaughtExceptionHandler}
+ * and the worker carries on with its next task.
+ */
+public class WorkStealingExecutor extends AbstractExecutorService {
+
+	private final ForkJoinPool pool;
+
+	/** the tasks accepted but not yet running, which shutdownNow claims */
+	private final Set<ExecuteTask> pendingTasks = ConcurrentHashMap.newKeySet();
+
+	public WorkStealingExecutor() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism the number of workers
+	 * @throws IllegalArgumentException if the parallelism is not positive
+	 */
+	public WorkStealingExecutor(int parallelism) {
+		this(parallelism, null);
+	}
+
+	/**
+	 * @param parallelism the number of workers
+	 * @param handler receives the exceptions thrown by tasks, or <tt>null</tt> for the
+	 * 		  workers' default handler
+	 * @throws IllegalArgumentException if the parallelism is not positive
+	 */
+	public WorkStealingExecutor(int parallelism, Thread.UncaughtExceptionHandler handler) {
+		// LIFO local deques run the most recently forked subtask first, while its data is warm
+		this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, handler, false);
+	}
+
+	/**
+	 * Pushes the task onto the calling worker's own deque, or onto a shared submission queue
+	 * if the caller is not one of this executor's workers.
+	 *
+	 * @throws RejectedExecutionException if the executor has been shut down
+	 */
+	@Override
+	public void execute(Runnable command) {
+		if (command == null) {
+			throw new NullPointerException();
+		}
+		ExecuteTask task = new ExecuteTask(command);
+		// added before the check, so shutdownNow either sees the task or the task sees the shutdown
+		pendingTasks.add(task);
+		if (pool.isShutdown()) {
+			pendingTasks.remove(task);
+			throw new RejectedExecutionException("Executor has been shut down");
+		}
+		Thread thread = Thread.currentThread();
+		if (thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool) {
+			task.fork();
+		}
+		else {
+			try {
+				pool.execute(task);
+			}
+			catch (RejectedExecutionException e) {
+				pendingTasks.remove(task);
+				throw e;
+			}
+		}
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * @return an estimate of the number of tasks taken by one worker from another's deque.
+	 */
+	public long getStealCount() {
+		return pool.getStealCount();
+	}
+
+	/**
+	 * @return an estimate of the number of tasks waiting in the workers' deques and the
+	 * 		   submission queues.
+	 */
+	public long getQueuedTaskCount() {
+		return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+	}
+
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Claims the tasks that have not started before interrupting the running ones, so that
+	 * each task is either returned or has run.
+	 *
+	 * @return the tasks that had not started running, as passed to <tt>execute</tt>
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		pool.shutdown();
+		List<Runnable> tasks = new ArrayList<>();
+		for (ExecuteTask task : pendingTasks) {
+			if (pendingTasks.remove(task)) {
+				tasks.add(task.command);
+			}
+		}
+		pool.shutdownNow();
+		return tasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return pool.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return pool.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return pool.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Runs a task unless shutdownNow has claimed it first, handing anything it throws to the
+	 * worker's uncaught exception handler rather than recording it in a task that nobody joins.
+	 */
+	private final class ExecuteTask extends ForkJoinTask<Void> {
+		private static final long serialVersionUID = 1L;
+
+		private final Runnable command;
+
+		ExecuteTask(Runnable command) {
+			this.command = command;
+		}
+
+		@Override
+		public Void getRawResult() {
+			return null;
+		}
+
+		@Override
+		protected void setRawResult(Void value) {
+		}
+
+		@Override
+		protected boolean exec() {
+			if (!pendingTasks.remove(this)) {
+				return true;
+			}
+			try {
+				command.run();
+			}
+			catch (Throwable t) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.mrtoast.interviewProblems.cache.RejectionPolicies;
+import com.mrtoast.interviewProblems.cache.ThreadPoolExecutorImpl;
+
+public class ConcurrentPriorityQueueTest
+{
+	@Test
+	public void peekTest()
+	{
+		ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<>();
+		for (int i=100; i>0; i--)
+		{
+			queue.add(i);
+		}
+		Assert.assertEquals(queue.peek(), Integer.valueOf(1));
+		Assert.assertEquals(queue.size(), 100);
+
+		List<Integer> taken = new ArrayList<>();
+		queue.drainTo(taken);
+		Collections.sort(taken);
+		Assert.assertEquals(taken.size(), 100);
+		Assert.assertEquals(taken.get(99), Integer.valueOf(100));
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void boundedTest() throws Exception
+	{
+		ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<>(2, null);
+		Assert.assertTrue(queue.offer(1));
+		Assert.assertTrue(queue.offer(2));
+		Assert.assertFalse(queue.offer(3));
+		Assert.assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(queue.remainingCapacity(), 0);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			Future<?> put = executor.submit(() -> {
+				queue.put(3);
+				return null;
+			});
+			Assert.assertNotNull(queue.take());
+			put.get(5, TimeUnit.SECONDS);
+			Assert.assertEquals(queue.size(), 2);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void producerConsumerTest() throws Exception
+	{
+		ConcurrentPriorityQueue<Long> queue = new ConcurrentPriorityQueue<>();
+		int threads = 4;
+		int perThread = 20000;
+		AtomicLong sum = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+		try
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t=0; t<threads; t++)
+			{
+				long offset = (long) t * perThread;
+				futures.add(executor.submit(() -> {
+					for (long i=1; i<=perThread; i++)
+					{
+						queue.put(offset + i);
+					}
+					return null;
+				}));
+				futures.add(executor.submit(() -> {
+					for (int i=0; i<perThread; i++)
+					{
+						sum.addAndGet(queue.take());
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures)
+			{
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		long n = (long) threads * perThread;
+		Assert.assertEquals(sum.get(), n * (n + 1) / 2);
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void workQueueTest() throws Exception
+	{
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl(2, 2, 1, TimeUnit.SECONDS,
+				ThreadPoolExecutorImpl.newPriorityWorkQueue(0, (a, b) -> 0), Executors.defaultThreadFactory(),
+				RejectionPolicies.abort());
+		CountDownLatch latch = new CountDownLatch(1000);
+		try
+		{
+			for (int i=0; i<1000; i++)
+			{
+				executor.execute(latch::countDown);
+			}
+			Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+}
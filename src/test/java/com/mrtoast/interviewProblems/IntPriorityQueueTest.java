@@ -0,0 +1,46 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IntPriorityQueueTest
+{
+	@Test
+	public void addAllTest()
+	{
+		int[] values = new Random(42).ints(10000).toArray();
+		IntPriorityQueue queue = new IntPriorityQueue(10001);
+		queue.add(0);
+		queue.addAll(values);
+		int[] sorted = Arrays.copyOf(values, values.length + 1);
+		Arrays.sort(sorted);
+		for (int value : sorted)
+		{
+			Assert.assertEquals(queue.take(), value);
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void smallAddAllTest()
+	{
+		int[] values = new Random(42).ints(10000).toArray();
+		IntPriorityQueue queue = new IntPriorityQueue(10010);
+		queue.addAll(values);
+		// a batch smaller than the queue is sifted in rather than rebuilding the heap
+		queue.addAll(new int[] { Integer.MIN_VALUE, 5, Integer.MAX_VALUE });
+		int[] sorted = Arrays.copyOf(values, values.length + 3);
+		sorted[values.length] = Integer.MIN_VALUE;
+		sorted[values.length + 1] = 5;
+		sorted[values.length + 2] = Integer.MAX_VALUE;
+		Arrays.sort(sorted);
+		for (int value : sorted)
+		{
+			Assert.assertEquals(queue.take(), value);
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+}
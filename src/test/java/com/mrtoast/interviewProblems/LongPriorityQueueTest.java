@@ -0,0 +1,61 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LongPriorityQueueTest
+{
+	@Test
+	public void addAllTest()
+	{
+		Random random = new Random(42);
+		long[] values = random.longs(10000).toArray();
+		long[] more = random.longs(100).toArray();
+		LongPriorityQueue queue = new LongPriorityQueue(10100);
+		// the first batch builds the heap, the second is sifted in
+		queue.addAll(values);
+		queue.addAll(more);
+		long[] sorted = Arrays.copyOf(values, values.length + more.length);
+		System.arraycopy(more, 0, sorted, values.length, more.length);
+		Arrays.sort(sorted);
+		for (long value : sorted)
+		{
+			Assert.assertEquals(queue.take(), value);
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void topNTest()
+	{
+		long[] values = new Random(7).longs(10000).toArray();
+		LongPriorityQueue queue = new LongPriorityQueue(10);
+		for (long value : values)
+		{
+			if (queue.size() < 10)
+			{
+				queue.add(value);
+			}
+			else if (value > queue.peek())
+			{
+				queue.replaceTop(value);
+			}
+		}
+		Arrays.sort(values);
+		for (int i=values.length - 10; i<values.length; i++)
+		{
+			Assert.assertEquals(queue.take(), values[i]);
+		}
+	}
+
+	@Test(expectedExceptions=RuntimeException.class)
+	public void fullTest()
+	{
+		LongPriorityQueue queue = new LongPriorityQueue(2);
+		queue.add(1);
+		queue.addAll(new long[] { 2, 3 });
+	}
+}
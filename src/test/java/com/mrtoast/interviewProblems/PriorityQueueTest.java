@@ -0,0 +1,64 @@
+package com.mrtoast.interviewProblems;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PriorityQueueTest
+{
+	@Test
+	public void orderTest()
+	{
+		PriorityQueue<Integer> queue = new PriorityQueue<>(1000, Integer[]::new);
+		Random random = new Random(42);
+		for (int i=0; i<1000; i++)
+		{
+			queue.add(random.nextInt(100));
+		}
+		int previous = Integer.MIN_VALUE;
+		while (!queue.isEmpty())
+		{
+			int value = queue.take();
+			Assert.assertTrue(value >= previous);
+			previous = value;
+		}
+	}
+
+	@Test
+	public void comparatorTest()
+	{
+		PriorityQueue<String> queue = new PriorityQueue<>(4, String[]::new, Comparator.reverseOrder());
+		queue.add("b");
+		queue.add("d");
+		queue.add("a");
+		Assert.assertEquals(queue.peek(), "d");
+		Assert.assertEquals(queue.take(), "d");
+		Assert.assertEquals(queue.take(), "b");
+		Assert.assertEquals(queue.take(), "a");
+	}
+
+	@Test
+	public void addAllTest()
+	{
+		PriorityQueue<Integer> queue = new PriorityQueue<>(10, Integer[]::new);
+		queue.add(5);
+		PriorityQueue<Integer> other = new PriorityQueue<>(10, Integer[]::new);
+		other.add(3);
+		other.add(7);
+		// the empty slots of the other queue must not be added
+		queue.addAll(other);
+		Assert.assertEquals(queue.size(), 3);
+		Assert.assertEquals(queue.take(), Integer.valueOf(3));
+		Assert.assertEquals(other.size(), 2);
+	}
+
+	@Test(expectedExceptions=RuntimeException.class)
+	public void fullTest()
+	{
+		PriorityQueue<Integer> queue = new PriorityQueue<>(1, Integer[]::new);
+		queue.add(1);
+		queue.add(2);
+	}
+}
@@ -0,0 +1,142 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AdaptivePoolSizerTest
+{
+	@Test
+	public void resizeTest() throws Exception
+	{
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl(0, 10, 1, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), Thread::new, RejectionPolicies.abort());
+		// ignore the load of the machine running the test
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(executor, 1, 4, 1, TimeUnit.MILLISECONDS, Double.MAX_VALUE);
+		try
+		{
+			// the maximum size follows at twice the core size
+			Assert.assertEquals(executor.getCorePoolSize(), 1);
+			Assert.assertEquals(executor.getMaximumPoolSize(), 2);
+
+			for (int i=0; i<200; i++)
+			{
+				executor.execute(() -> sleep(10));
+			}
+			// the backlog makes every step add a thread, up to the limit
+			for (int i=0; i<6; i++)
+			{
+				sizer.run();
+				Thread.sleep(50);
+			}
+			Assert.assertEquals(executor.getCorePoolSize(), 4);
+			Assert.assertEquals(executor.getMaximumPoolSize(), 4);
+
+			// once the queue is drained the idle threads are removed again
+			executor.getQueue().clear();
+			Thread.sleep(50);
+			for (int i=0; i<6; i++)
+			{
+				sizer.run();
+			}
+			Assert.assertEquals(executor.getCorePoolSize(), 1);
+			Assert.assertEquals(executor.getMaximumPoolSize(), 2);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void saturatedTest() throws Exception
+	{
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl(2, 10, 1, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), Thread::new, RejectionPolicies.abort());
+		// any load saturates the processors, which may stop the climb but must not shrink a backlogged pool
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(executor, 1, 4, 1, TimeUnit.MILLISECONDS, 0);
+		try
+		{
+			for (int i=0; i<200; i++)
+			{
+				executor.execute(() -> sleep(10));
+			}
+			for (int i=0; i<6; i++)
+			{
+				sizer.run();
+				Thread.sleep(50);
+				Assert.assertTrue(executor.getCorePoolSize() >= 2);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void newAdaptiveTest() throws Exception
+	{
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try
+		{
+			ThreadPoolExecutorImpl executor = ThreadPoolExecutorImpl.newAdaptive(scheduler);
+			// one warm thread is kept instead of the default core size of 0
+			Assert.assertEquals(executor.getCorePoolSize(), 1);
+			Assert.assertEquals(executor.submit(() -> "result").get(10, TimeUnit.SECONDS), "result");
+			executor.shutdown();
+			Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		}
+		finally
+		{
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Test
+	public void stopOnShutdownTest() throws Exception
+	{
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try
+		{
+			ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl();
+			AdaptivePoolSizer sizer = new AdaptivePoolSizer(executor, 1, 4, 1, TimeUnit.MILLISECONDS);
+			ScheduledFuture<?> steps = sizer.start(scheduler, 1, TimeUnit.MILLISECONDS);
+			executor.shutdown();
+			// the next step sees the shutdown and cancels the steps
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!steps.isCancelled() && System.nanoTime() < deadline)
+			{
+				Thread.sleep(1);
+			}
+			Assert.assertTrue(steps.isCancelled());
+		}
+		finally
+		{
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void invalidPoolSizeTest()
+	{
+		new AdaptivePoolSizer(new ThreadPoolExecutorImpl(), 0, 4, 1, TimeUnit.MILLISECONDS);
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CacheSnapshotTest
+{
+	@Test
+	public void cacheRoundTripTest() throws IOException
+	{
+		Path path = Files.createTempFile("cache", ".snapshot");
+		try
+		{
+			Cache<Integer, String> cache = new Cache<>(16, 0.75f, true, 100);
+			for (int i=0; i<10; i++)
+			{
+				cache.put(i, "value" + i);
+			}
+			cache.get(0);
+			CacheSnapshot.write(cache, path, Serializers.INTEGER, Serializers.STRING);
+
+			Cache<Integer, String> restored = new Cache<>(16, 0.75f, true, 100);
+			CacheSnapshot.read(path, restored, Serializers.INTEGER, Serializers.STRING);
+			Assert.assertEquals(restored, cache);
+			Assert.assertEquals(new ArrayList<>(restored.keySet()), Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 0));
+		}
+		finally
+		{
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void expiringCacheRoundTripTest() throws IOException
+	{
+		Path path = Files.createTempFile("expiring", ".snapshot");
+		try
+		{
+			ExpiringCache<String, String> cache = new ExpiringCache<>(60000, 100);
+			cache.put("a", "1");
+			cache.put("b", "2");
+			long expiringTime = cache.getEntry("a").getExpiringTime();
+			CacheSnapshot.write(cache, path, Serializers.STRING, Serializers.STRING);
+
+			ExpiringCache<String, String> restored = new ExpiringCache<>(60000, 100);
+			CacheSnapshot.read(path, restored, Serializers.STRING, Serializers.STRING);
+			Assert.assertEquals(restored.size(), 2);
+			Assert.assertEquals(restored.get("b"), "2");
+			// the remaining time to live is kept rather than renewed
+			Assert.assertEquals(restored.getEntry("a").getExpiringTime(), expiringTime);
+		}
+		finally
+		{
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void invalidFileTest() throws IOException
+	{
+		Path path = Files.createTempFile("invalid", ".snapshot");
+		try
+		{
+			Files.write(path, new byte[64]);
+			CacheSnapshot.read(path, new Cache<Integer, String>(), Serializers.INTEGER, Serializers.STRING);
+		}
+		finally
+		{
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void failedWriteTest() throws IOException
+	{
+		// a non-empty directory cannot be replaced by the snapshot
+		Path path = Files.createTempDirectory("cache");
+		Path child = Files.createFile(path.resolve("child"));
+		Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+		try
+		{
+			Cache<Integer, String> cache = new Cache<>(16, 0.75f, true, 100);
+			cache.put(1, "one");
+			try
+			{
+				CacheSnapshot.write(cache, path, Serializers.INTEGER, Serializers.STRING);
+				Assert.fail("the snapshot replaced a non-empty directory");
+			}
+			catch (IOException e)
+			{
+				// expected
+			}
+			Assert.assertFalse(Files.exists(temporaryPath));
+			Assert.assertTrue(Files.exists(child));
+		}
+		finally
+		{
+			Files.deleteIfExists(temporaryPath);
+			Files.deleteIfExists(child);
+			Files.deleteIfExists(path);
+		}
+	}
+}
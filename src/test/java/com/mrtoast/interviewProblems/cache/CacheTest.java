@@ -0,0 +1,258 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class CacheTest
+{
+	@DataProvider
+	public Object[][] policyData()
+	{
+		return new Object[][] {
+				{AdmissionPolicy.NONE},
+				{AdmissionPolicy.WINDOW_TINY_LFU},
+		};
+	}
+
+	@Test(dataProvider="policyData")
+	public void maxCapacityTest(AdmissionPolicy admissionPolicy)
+	{
+		Cache<Integer, Integer> cache = new Cache<>(16, 0.75F, true, 100, admissionPolicy);
+		for (int i=0; i<10_000; i++)
+		{
+			cache.put(i, i);
+			cache.get(i % 50);
+		}
+		Assert.assertEquals(cache.size(), 100);
+
+		cache.clear();
+		Assert.assertTrue(cache.isEmpty());
+		cache.putIfAbsent(1, 1);
+		cache.merge(1, 1, Integer::sum);
+		Assert.assertEquals(cache.get(1), Integer.valueOf(2));
+		Assert.assertEquals(cache.remove(1), Integer.valueOf(2));
+	}
+
+	@Test
+	public void scanResistanceTest()
+	{
+		int maxCapacity = 100;
+		Cache<Integer, Integer> lru = new Cache<>(16, 0.75F, true, maxCapacity, AdmissionPolicy.NONE);
+		Cache<Integer, Integer> tinyLfu = new Cache<>(16, 0.75F, true, maxCapacity, AdmissionPolicy.WINDOW_TINY_LFU);
+
+		// build a frequently read working set
+		for (int round=0; round<10; round++)
+		{
+			for (int i=0; i<maxCapacity / 2; i++)
+			{
+				read(lru, i);
+				read(tinyLfu, i);
+			}
+		}
+		// a batch job scans many keys that are never read again
+		for (int i=1000; i<100_000; i++)
+		{
+			read(lru, i);
+			read(tinyLfu, i);
+		}
+
+		int lruHits = 0;
+		int tinyLfuHits = 0;
+		for (int i=0; i<maxCapacity / 2; i++)
+		{
+			lruHits += lru.containsKey(i) ? 1 : 0;
+			tinyLfuHits += tinyLfu.containsKey(i) ? 1 : 0;
+		}
+		Assert.assertEquals(lruHits, 0);
+		Assert.assertTrue(tinyLfuHits >= 45, "working set retained " + tinyLfuHits);
+	}
+
+	@Test
+	public void tinyLfuChurnTest()
+	{
+		int maxCapacity = 100;
+		Cache<Integer, Integer> cache = new Cache<>(16, 0.75F, true, maxCapacity, AdmissionPolicy.WINDOW_TINY_LFU);
+		Random random = new Random(42);
+		for (int i=0; i<100_000; i++)
+		{
+			int key = random.nextInt(1000);
+			switch (random.nextInt(4))
+			{
+			case 0:
+				cache.remove(key);
+				break;
+			case 1:
+				cache.get(key);
+				break;
+			default:
+				cache.put(key, key);
+			}
+			Assert.assertTrue(cache.size() <= maxCapacity);
+		}
+		// keys removed through the views stay tracked until the policy needs their nodes
+		for (int round=0; round<10; round++)
+		{
+			cache.keySet().clear();
+			for (int i=0; i<maxCapacity; i++)
+			{
+				cache.put(round * 1000 + i, i);
+			}
+			Assert.assertEquals(cache.size(), maxCapacity);
+		}
+		cache.put(-1, -1);
+		Assert.assertEquals(cache.size(), maxCapacity);
+		for (Map.Entry<Integer, Integer> entry : cache.entrySet())
+		{
+			Assert.assertEquals(entry.getValue(), Integer.valueOf((entry.getKey() < 0) ? -1 : entry.getKey() % 1000));
+		}
+	}
+
+	@Test
+	public void maxWeightTest()
+	{
+		Cache<String, byte[]> cache = new Cache<>(16, 0.75F, true, 1000, AdmissionPolicy.NONE, 100,
+				(key, value) -> value.length);
+		cache.put("a", new byte[40]);
+		cache.put("b", new byte[40]);
+		Assert.assertEquals(cache.getWeightedSize(), 80);
+
+		// the eldest entry is evicted to make room
+		cache.put("c", new byte[40]);
+		Assert.assertEquals(cache.getWeightedSize(), 80);
+		Assert.assertFalse(cache.containsKey("a"));
+
+		// replacing a value reweighs it
+		cache.put("b", new byte[10]);
+		Assert.assertEquals(cache.getWeightedSize(), 50);
+		cache.remove("c");
+		Assert.assertEquals(cache.getWeightedSize(), 10);
+
+		// an entry heavier than the maximum weight cannot be kept
+		cache.put("d", new byte[101]);
+		Assert.assertFalse(cache.containsKey("d"));
+		Assert.assertTrue(cache.getWeightedSize() <= cache.getMaxWeight());
+
+		cache.clear();
+		Assert.assertEquals(cache.getWeightedSize(), 0);
+	}
+
+	@Test
+	public void concurrentMaxWeightTest()
+	{
+		ConcurrentCache<Integer, byte[]> cache = new ConcurrentCache<>(16, 0.75F, true, 10_000, 4,
+				AdmissionPolicy.WINDOW_TINY_LFU, 10_000, (key, value) -> value.length);
+		for (int i=0; i<1000; i++)
+		{
+			cache.put(i, new byte[i % 100]);
+		}
+		Assert.assertTrue(cache.getWeightedSize() <= 10_000, "weighted size " + cache.getWeightedSize());
+		Assert.assertTrue(cache.getWeightedSize() > 0);
+	}
+
+	@Test
+	public void statsTest()
+	{
+		Cache<Integer, Integer> cache = new Cache<>(8, 0.75F, true, 10);
+		Assert.assertEquals(cache.getStats().getRequestCount(), 0);
+
+		cache.setStatsRecorder(new ConcurrentStatsRecorder());
+		for (int i=0; i<20; i++)
+		{
+			cache.put(i, i);
+		}
+		cache.get(19);
+		cache.get(0);
+		cache.getOrDefault(1, -1);
+
+		CacheStats stats = cache.getStats();
+		Assert.assertEquals(stats.getHitCount(), 1);
+		Assert.assertEquals(stats.getMissCount(), 2);
+		Assert.assertEquals(stats.getEvictionCount(), 10);
+		Assert.assertEquals(stats.getHitRate(), 1 / 3.0, 1e-9);
+	}
+
+	private static void read(Cache<Integer, Integer> cache, int key)
+	{
+		if (cache.get(key) == null)
+		{
+			cache.put(key, key);
+		}
+	}
+
+	@Test
+	public void removalListenerTest() throws Exception
+	{
+		List<String> removals = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(3);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			Cache<String, String> cache = new Cache<>(2, 0.75F, true, 2);
+			cache.setRemovalListener((key, value, cause) -> {
+				removals.add(key + "=" + value + ":" + cause);
+				latch.countDown();
+			}, executor);
+			cache.put("a", "1");
+			cache.put("a", "2");
+			cache.put("b", "3");
+			cache.put("c", "4");
+			cache.remove("b");
+			Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+			Assert.assertEquals(removals, Arrays.asList("a=1:REPLACED", "a=2:SIZE", "b=3:EXPLICIT"));
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void rejectedRemovalListenerTest() throws Exception
+	{
+		List<String> removals = Collections.synchronizedList(new ArrayList<>());
+		AtomicBoolean isRejecting = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			RemovalNotifier<String, String> notifier = new RemovalNotifier<>((key, value, cause) -> {
+				removals.add(key + ":" + Thread.currentThread().getName());
+			}, command -> {
+				if (isRejecting.get())
+				{
+					throw new RejectedExecutionException();
+				}
+				executor.execute(command);
+			});
+			// the rejected notification is kept, not delivered on the publishing thread
+			notifier.publish("a", "1", RemovalCause.EXPLICIT);
+			Assert.assertTrue(removals.isEmpty());
+			Assert.assertEquals(notifier.getPendingCount(), 1);
+
+			isRejecting.set(false);
+			notifier.publish("b", "2", RemovalCause.EXPLICIT);
+			executor.submit(() -> {}).get(5, TimeUnit.SECONDS);
+			Assert.assertEquals(removals.size(), 2);
+			Assert.assertTrue(removals.get(0).startsWith("a:"));
+			Assert.assertFalse(removals.get(0).endsWith(":" + Thread.currentThread().getName()));
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+}
+
@@ -0,0 +1,134 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ConcurrentCacheTest
+{
+	@DataProvider
+	public Object[][] segmentData()
+	{
+		return new Object[][] {
+				// concurrencyLevel, maxCapacity, expected segments
+				{1, 100, 1},
+				{3, 100, 4},
+				{16, 100, 16},
+				{16, 5, 4},
+				{16, 0, 1},
+		};
+	}
+
+	@Test(dataProvider="segmentData")
+	public void segmentCountTest(int concurrencyLevel, int maxCapacity, int expectedSegments)
+	{
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(0, 0.75F, true, maxCapacity, concurrencyLevel);
+		Assert.assertEquals(cache.getSegmentCount(), expectedSegments);
+	}
+
+	@Test
+	public void leastRecentlyUsedTest()
+	{
+		ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(0, 0.75F, true, 3, 1);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.put(3, "three");
+		// touch the eldest entry so that 2 becomes the least recently used
+		Assert.assertEquals(cache.get(1), "one");
+		cache.put(4, "four");
+
+		Assert.assertEquals(cache.size(), 3);
+		Assert.assertNull(cache.get(2));
+		Assert.assertEquals(cache.get(1), "one");
+		Assert.assertEquals(cache.get(4), "four");
+	}
+
+	@Test
+	public void maxCapacityTest() throws Exception
+	{
+		int maxCapacity = 256;
+		ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(16, 0.75F, true, maxCapacity, 8);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t=0; t<4; t++)
+		{
+			int offset = t * 10_000;
+			Thread thread = new Thread(() -> {
+				for (int i=0; i<10_000; i++)
+				{
+					cache.put(offset + i, i);
+					cache.get(offset + i / 2);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		Assert.assertTrue(cache.size() <= maxCapacity, "size " + cache.size() + " exceeds " + maxCapacity);
+		Assert.assertFalse(cache.isEmpty());
+		cache.clear();
+		Assert.assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void bulkOperationsTest()
+	{
+		ConcurrentCache<Integer, String> cache = new ConcurrentCache<>(16, 0.75F, true, 1000, 8);
+		Map<Integer, String> entries = new HashMap<>();
+		for (int i=0; i<100; i++)
+		{
+			entries.put(i, "value" + i);
+		}
+		cache.putAll(entries);
+		Assert.assertEquals(cache.size(), 100);
+
+		Map<Integer, String> values = cache.getAll(Arrays.asList(99, 5, 200, 7));
+		Assert.assertEquals(new ArrayList<>(values.keySet()), Arrays.asList(99, 5, 7));
+		Assert.assertEquals(values.get(5), "value5");
+
+		cache.invalidateAll(Arrays.asList(5, 7, 200));
+		Assert.assertEquals(cache.size(), 98);
+		Assert.assertFalse(cache.containsKey(5));
+	}
+
+		@Test(expectedExceptions=IllegalArgumentException.class)
+	public void invalidConcurrencyLevelTest()
+	{
+		new ConcurrentCache<Integer, Integer>(0, 0.75F, true, 10, 0);
+	}
+
+	@Test
+	public void globalMaxWeightTest()
+	{
+		ConcurrentCache<Integer, byte[]> cache = new ConcurrentCache<>(16, 0.75F, true, 1000, 16,
+				AdmissionPolicy.NONE, 1000, (key, value) -> value.length);
+		Assert.assertEquals(cache.getMaxWeight(), 1000);
+		// far heavier than a sixteenth of the maximum weight, yet kept
+		cache.put(1, new byte[900]);
+		Assert.assertNotNull(cache.get(1));
+		for (int i=2; i<100; i++)
+		{
+			cache.put(i, new byte[50]);
+			Assert.assertTrue(cache.getWeightedSize() <= 1000, "weighted size " + cache.getWeightedSize());
+		}
+		Assert.assertTrue(cache.getWeightedSize() > 900);
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void oversizeEntryTest()
+	{
+		ConcurrentCache<Integer, byte[]> cache = new ConcurrentCache<>(16, 0.75F, true, 1000, 16,
+				AdmissionPolicy.NONE, 1000, (key, value) -> value.length);
+		cache.put(1, new byte[1001]);
+	}
+}
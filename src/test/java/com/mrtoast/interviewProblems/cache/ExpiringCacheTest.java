@@ -0,0 +1,152 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ExpiringCacheTest
+{
+	@Test
+	public void putAndGetTest()
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+		cache.put("a", "1");
+		cache.put("a", "2");
+		Assert.assertEquals(cache.get("a"), "2");
+		Assert.assertEquals(cache.size(), 1);
+		Assert.assertEquals(cache.remove("a"), "2");
+		Assert.assertNull(cache.get("a"));
+	}
+
+	@Test
+	public void maxSizeTest()
+	{
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 10);
+		for (int i=0; i<100; i++)
+		{
+			cache.put(i, i);
+		}
+		Assert.assertEquals(cache.size(), 10);
+		Assert.assertNull(cache.get(0));
+		Assert.assertEquals(cache.get(99), Integer.valueOf(99));
+	}
+
+	@Test
+	public void expireOnReadTest() throws Exception
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(20, 10);
+		cache.put("a", "1");
+		Thread.sleep(40);
+		// no cleanup has run, but the expired value must not be returned
+		Assert.assertNull(cache.get("a"));
+		Assert.assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void amortizedCleanupTest() throws Exception
+	{
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(20, 1000);
+		for (int i=0; i<100; i++)
+		{
+			cache.put(i, i);
+		}
+		Thread.sleep(40);
+
+		// each read reclaims at most CLEANUP_BUDGET expired entries
+		cache.get(-1);
+		Assert.assertEquals(cache.size(), 100 - ExpiringCache.CLEANUP_BUDGET);
+		cache.cleanup();
+		Assert.assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void perEntryTtlTest() throws Exception
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10000, 10);
+		cache.put("short", "1", 20, TimeUnit.MILLISECONDS);
+		cache.put("long", "2");
+		Thread.sleep(40);
+		Assert.assertNull(cache.get("short"));
+		Assert.assertEquals(cache.get("long"), "2");
+
+		// a plain put replaces the time to live with the cache's delay
+		cache.put("short", "1", 20, TimeUnit.MILLISECONDS);
+		cache.put("short", "3");
+		Thread.sleep(40);
+		Assert.assertEquals(cache.get("short"), "3");
+	}
+
+	@Test
+	public void expireAfterAccessTest() throws Exception
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(60, 10, ExpirationMode.AFTER_ACCESS);
+		cache.put("a", "1");
+		for (int i=0; i<4; i++)
+		{
+			Thread.sleep(30);
+			Assert.assertEquals(cache.get("a"), "1");
+		}
+		Thread.sleep(120);
+		Assert.assertNull(cache.get("a"));
+	}
+
+	@Test
+	public void expireTest()
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10000, 10);
+		cache.put("a", "1");
+		Assert.assertTrue(cache.expire("a"));
+		Assert.assertFalse(cache.expire("a"));
+		Assert.assertNull(cache.get("a"));
+		Assert.assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void expirationStatsTest() throws Exception
+	{
+		ExpiringCache<String, String> cache = new ExpiringCache<>(20, 10);
+		cache.setStatsRecorder(new ConcurrentStatsRecorder());
+		cache.put("a", "1");
+		Thread.sleep(40);
+		// replacing an overdue value expires it, and the renewed entry is not counted again
+		cache.put("a", "2");
+		Assert.assertEquals(cache.getStats().getExpirationCount(), 1);
+		cache.cleanup();
+		Assert.assertEquals(cache.getStats().getExpirationCount(), 1);
+
+		Thread.sleep(40);
+		cache.cleanup();
+		Assert.assertEquals(cache.getStats().getExpirationCount(), 2);
+		cache.put("b", "1");
+		Thread.sleep(40);
+		Assert.assertNull(cache.get("b"));
+		cache.cleanup();
+		Assert.assertEquals(cache.getStats().getExpirationCount(), 3);
+	}
+
+	@Test
+	public void removalListenerTest() throws Exception
+	{
+		Map<String, RemovalCause> removals = new ConcurrentHashMap<>();
+		CountDownLatch latch = new CountDownLatch(2);
+		ExpiringCache<String, String> cache = new ExpiringCache<>(20, 10);
+		cache.setRemovalListener((key, value, cause) -> {
+			removals.put(key, cause);
+			latch.countDown();
+		}, ForkJoinPool.commonPool());
+		cache.put("a", "1");
+		cache.put("b", "2", 10, TimeUnit.SECONDS);
+		Thread.sleep(40);
+		cache.cleanup();
+		cache.expire("b");
+		Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals(removals.get("a"), RemovalCause.EXPIRED);
+		Assert.assertEquals(removals.get("b"), RemovalCause.EXPIRED);
+	}
+}
+
@@ -0,0 +1,79 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IntKeyCacheTest
+{
+	@Test
+	public void lruTest()
+	{
+		IntKeyCache<String> cache = new IntKeyCache<>(3);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.put(3, "three");
+		Assert.assertEquals(cache.get(1), "one");
+		cache.put(4, "four");
+
+		Assert.assertNull(cache.get(2));
+		Assert.assertEquals(cache.size(), 3);
+		Assert.assertEquals(cache.put(1, "uno"), "one");
+		Assert.assertEquals(cache.remove(3), "three");
+		Assert.assertFalse(cache.containsKey(3));
+		Assert.assertEquals(cache.size(), 2);
+	}
+
+	/**
+	 * Compares random operations on colliding keys with the generic {@link Cache}, which
+	 * exercises probing and the backward-shift deletion.
+	 */
+	@Test
+	public void randomOperationsTest()
+	{
+		IntKeyCache<Integer> cache = new IntKeyCache<>(100);
+		Cache<Integer, Integer> expected = new Cache<>(16, 0.75F, true, 100);
+		Random random = new Random(42);
+		for (int i=0; i<100_000; i++)
+		{
+			// negative keys and keys sharing their low bits as well
+			int key = (random.nextInt(600) - 300) * 1024;
+			switch (random.nextInt(4))
+			{
+			case 0:
+				Assert.assertEquals(cache.put(key, key), expected.put(key, key));
+				break;
+			case 1:
+				Assert.assertEquals(cache.remove(key), expected.remove(key));
+				break;
+			case 2:
+				Assert.assertEquals(cache.containsKey(key), expected.containsKey(key));
+				break;
+			default:
+				Assert.assertEquals(cache.get(key), expected.get(key));
+			}
+			Assert.assertEquals(cache.size(), expected.size());
+		}
+		cache.clear();
+		Assert.assertTrue(cache.isEmpty());
+		Assert.assertNull(cache.get(0));
+	}
+
+	@Test
+	public void expirationTest() throws InterruptedException
+	{
+		IntKeyCache<String> cache = new IntKeyCache<>(10, 50);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		Assert.assertEquals(cache.get(1), "one");
+		Thread.sleep(100);
+		cache.put(3, "three");
+
+		Assert.assertNull(cache.get(1));
+		Assert.assertEquals(cache.size(), 2);
+		cache.cleanup();
+		Assert.assertEquals(cache.size(), 1);
+		Assert.assertEquals(cache.get(3), "three");
+	}
+}
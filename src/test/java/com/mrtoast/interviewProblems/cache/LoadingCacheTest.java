@@ -0,0 +1,181 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LoadingCacheTest
+{
+	@Test
+	public void singleFlightTest() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			LoadingCache<String, String> cache = new LoadingCache<>(new ExpiringCache<>(60_000, 10), executor);
+			AtomicInteger loadCount = new AtomicInteger();
+			CountDownLatch release = new CountDownLatch(1);
+
+			List<Future<String>> results = new ArrayList<>();
+			for (int i=0; i<8; i++)
+			{
+				results.add(executor.submit(() -> cache.get("key", key -> {
+					loadCount.incrementAndGet();
+					await(release);
+					return key.toUpperCase();
+				})));
+			}
+			// give every caller time to miss before the load completes
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<String> result : results)
+			{
+				Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "KEY");
+			}
+			Assert.assertEquals(loadCount.get(), 1);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void getAsyncTest() throws Exception
+	{
+		ThreadLocalCache<Integer, Integer> threadLocalCache = new ThreadLocalCache<>();
+		try
+		{
+			LoadingCache<Integer, Integer> cache = threadLocalCache.newLoadingCache(60_000, 10);
+			CompletableFuture<Integer> value = cache.getAsync(2, key -> key * key);
+			Assert.assertEquals(value.get(5, TimeUnit.SECONDS), Integer.valueOf(4));
+			Assert.assertEquals(cache.getCache().get(2), Integer.valueOf(4));
+		}
+		finally
+		{
+			threadLocalCache.shutdown();
+		}
+	}
+
+	@Test
+	public void getAllTest()
+	{
+		LoadingCache<Integer, Integer> cache = new LoadingCache<>(new ExpiringCache<>(60_000, 10), Runnable::run);
+		cache.get(1, key -> -1);
+		Map<Integer, Integer> values = cache.getAll(Arrays.asList(1, 2, 3), key -> key * 10);
+		Assert.assertEquals(values.get(1), Integer.valueOf(-1));
+		Assert.assertEquals(values.get(2), Integer.valueOf(20));
+		Assert.assertEquals(values.get(3), Integer.valueOf(30));
+	}
+
+	@Test
+	public void getAllBatchedTest()
+	{
+		LoadingCache<Integer, Integer> cache = new LoadingCache<>(new ExpiringCache<>(60_000, 10), Runnable::run);
+		cache.get(1, key -> -1);
+		List<Set<Integer>> batches = new ArrayList<>();
+		Map<Integer, Integer> values = cache.getAllBatched(Arrays.asList(3, 1, 2, 3, 4), keys -> {
+			batches.add(new HashSet<>(keys));
+			Map<Integer, Integer> loaded = new HashMap<>();
+			for (Integer key : keys)
+			{
+				if (key != 4)
+				{
+					loaded.put(key, key * 10);
+				}
+			}
+			return loaded;
+		});
+
+		Assert.assertEquals(batches, Arrays.asList(new HashSet<>(Arrays.asList(2, 3, 4))));
+		Assert.assertEquals(new ArrayList<>(values.keySet()), Arrays.asList(3, 1, 2));
+		Assert.assertEquals(values.get(1), Integer.valueOf(-1));
+		Assert.assertEquals(cache.getCache().get(2), Integer.valueOf(20));
+		Assert.assertNull(cache.getCache().get(4));
+	}
+
+	@Test
+	public void refreshAheadTest() throws Exception
+	{
+		AtomicInteger version = new AtomicInteger();
+		LoadingCache<String, Integer> cache = new LoadingCache<>(new ExpiringCache<>(300, 10), Runnable::run, 0.5);
+
+		Assert.assertEquals(cache.get("key", key -> version.incrementAndGet()), Integer.valueOf(1));
+		Assert.assertEquals(cache.get("key", key -> version.incrementAndGet()), Integer.valueOf(1));
+		Assert.assertEquals(version.get(), 1);
+
+		Thread.sleep(200);
+		// past the refresh point the cached value is still served while it is reloaded
+		Assert.assertEquals(cache.get("key", key -> version.incrementAndGet()), Integer.valueOf(1));
+		Assert.assertEquals(version.get(), 2);
+		Assert.assertEquals(cache.get("key", key -> version.incrementAndGet()), Integer.valueOf(2));
+	}
+
+	@Test
+	public void loadStatsTest()
+	{
+		ExpiringCache<String, String> expiringCache = new ExpiringCache<>(60_000, 10);
+		expiringCache.setStatsRecorder(new ConcurrentStatsRecorder());
+		LoadingCache<String, String> cache = new LoadingCache<>(expiringCache, Runnable::run);
+		cache.get("a", String::toUpperCase);
+		cache.get("a", String::toUpperCase);
+		try
+		{
+			cache.get("b", key -> { throw new IllegalStateException(); });
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+
+		CacheStats stats = expiringCache.getStats();
+		Assert.assertEquals(stats.getHitCount(), 1);
+		Assert.assertEquals(stats.getMissCount(), 2);
+		Assert.assertEquals(stats.getLoadSuccessCount(), 1);
+		Assert.assertEquals(stats.getLoadFailureCount(), 1);
+		Assert.assertEquals(stats.getLoadLatency().getCount(), 2);
+		Assert.assertTrue(stats.getLoadLatency().getPercentile(100) <= stats.getLoadLatency().getMax());
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void invalidRefreshRatioTest()
+	{
+		new LoadingCache<>(new ExpiringCache<String, String>(300, 10), Runnable::run, 0);
+	}
+
+	@Test(expectedExceptions=IllegalStateException.class)
+	public void loaderExceptionTest()
+	{
+		LoadingCache<Integer, Integer> cache = new LoadingCache<>(new ExpiringCache<>(60_000, 10), Runnable::run);
+		cache.get(1, key -> {
+			throw new IllegalStateException("backend unavailable");
+		});
+	}
+
+	private static void await(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LongKeyCacheTest
+{
+	@Test
+	public void lruTest()
+	{
+		LongKeyCache<String> cache = new LongKeyCache<>(3);
+		cache.put(1L, "one");
+		cache.put(2L, "two");
+		cache.put(3L, "three");
+		Assert.assertEquals(cache.get(1L), "one");
+		cache.put(4L, "four");
+
+		Assert.assertNull(cache.get(2L));
+		Assert.assertEquals(cache.size(), 3);
+		Assert.assertEquals(cache.put(1L, "uno"), "one");
+		Assert.assertEquals(cache.remove(3L), "three");
+		Assert.assertFalse(cache.containsKey(3L));
+		Assert.assertEquals(cache.size(), 2);
+	}
+
+	/**
+	 * Compares random operations on colliding keys with the generic {@link Cache}, which
+	 * exercises probing and the backward-shift deletion.
+	 */
+	@Test
+	public void randomOperationsTest()
+	{
+		LongKeyCache<Long> cache = new LongKeyCache<>(100);
+		Cache<Long, Long> expected = new Cache<>(16, 0.75F, true, 100);
+		Random random = new Random(42);
+		for (int i=0; i<100_000; i++)
+		{
+			long key = random.nextInt(300) * 1024L;
+			switch (random.nextInt(3))
+			{
+			case 0:
+				Assert.assertEquals(cache.put(key, key), expected.put(key, key));
+				break;
+			case 1:
+				Assert.assertEquals(cache.remove(key), expected.remove(key));
+				break;
+			default:
+				Assert.assertEquals(cache.get(key), expected.get(key));
+			}
+			Assert.assertEquals(cache.size(), expected.size());
+		}
+	}
+
+	@Test
+	public void expirationTest() throws InterruptedException
+	{
+		LongKeyCache<String> cache = new LongKeyCache<>(10, 50);
+		cache.put(1L, "one");
+		cache.put(2L, "two");
+		Assert.assertEquals(cache.get(1L), "one");
+		Thread.sleep(100);
+		cache.put(3L, "three");
+
+		Assert.assertNull(cache.get(1L));
+		Assert.assertEquals(cache.size(), 2);
+		cache.cleanup();
+		Assert.assertEquals(cache.size(), 1);
+		Assert.assertEquals(cache.get(3L), "three");
+	}
+}
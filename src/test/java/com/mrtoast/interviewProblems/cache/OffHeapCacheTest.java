@@ -0,0 +1,166 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class OffHeapCacheTest
+{
+	@Test
+	public void putAndGetTest()
+	{
+		OffHeapCache<Integer, String> cache = Cache.offHeapCache(100, 1 << 20, Serializers.STRING);
+		cache.put(1, "one");
+		cache.put(2, "two");
+		cache.put(1, "uno");
+
+		Assert.assertEquals(cache.get(1), "uno");
+		Assert.assertEquals(cache.get(2), "two");
+		Assert.assertNull(cache.get(3));
+		Assert.assertEquals(cache.size(), 2);
+		Assert.assertEquals(cache.getUsedBytes(), 2 * SlabAllocator.MIN_CHUNK_SIZE);
+
+		Assert.assertEquals(cache.remove(2), "two");
+		Assert.assertEquals(cache.getUsedBytes(), SlabAllocator.MIN_CHUNK_SIZE);
+	}
+
+	@Test
+	public void maxCapacityTest()
+	{
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(10, 1 << 16, 1 << 12, Serializers.BYTES);
+		for (int i=0; i<100; i++)
+		{
+			cache.put(i, new byte[100]);
+		}
+		Assert.assertEquals(cache.size(), 10);
+		Assert.assertEquals(cache.getUsedBytes(), 10 * 128);
+		Assert.assertNull(cache.get(0));
+		Assert.assertEquals(cache.get(99).length, 100);
+	}
+
+	@Test
+	public void maxMemoryTest()
+	{
+		int slabSize = 1 << 12;
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(1000, 2 * slabSize, slabSize, Serializers.BYTES);
+		for (int i=0; i<100; i++)
+		{
+			cache.put(i, new byte[500]);
+		}
+		// each 500 byte value and its header take a 512 byte chunk
+		Assert.assertEquals(cache.getAllocatedBytes(), 2 * slabSize);
+		Assert.assertEquals(cache.size(), 2 * slabSize / 512);
+
+		// memory of a drained size class is reused by another
+		cache.clear();
+		for (int i=0; i<100; i++)
+		{
+			cache.put(i, new byte[10]);
+		}
+		Assert.assertTrue(cache.getAllocatedBytes() <= 2 * slabSize);
+		Assert.assertEquals(cache.size(), 100);
+	}
+
+	@Test
+	public void sizeClassEvictionTest()
+	{
+		int slabSize = 1 << 12;
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(1000, 2 * slabSize, slabSize, Serializers.BYTES);
+		// one slab of 64 byte chunks, then one of 512 byte chunks
+		for (int i=0; i<64; i++)
+		{
+			cache.put(i, new byte[10]);
+		}
+		for (int i=100; i<108; i++)
+		{
+			cache.put(i, new byte[500]);
+		}
+		Assert.assertEquals(cache.getAllocatedBytes(), 2 * slabSize);
+
+		// only the eldest entry of the same size class makes room, not the older small entries
+		cache.put(200, new byte[500]);
+		Assert.assertEquals(cache.size(), 64 + 8);
+		Assert.assertNull(cache.get(100));
+		Assert.assertNotNull(cache.get(0));
+
+		// replacing a value while memory is full keeps every other entry
+		cache.put(101, new byte[400]);
+		Assert.assertEquals(cache.get(101).length, 400);
+		Assert.assertEquals(cache.size(), 64 + 8);
+	}
+
+	@Test
+	public void slabEvictionTest()
+	{
+		int slabSize = 1 << 12;
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(1000, 2 * slabSize, slabSize, Serializers.BYTES);
+		for (int i=0; i<128; i++)
+		{
+			cache.put(i, new byte[10]);
+		}
+		// no entry of the size class, so the slab of the eldest entry is emptied
+		cache.put(200, new byte[500]);
+		Assert.assertEquals(cache.size(), 64 + 1);
+		Assert.assertNull(cache.get(0));
+		Assert.assertNotNull(cache.get(127));
+		Assert.assertEquals(cache.get(200).length, 500);
+	}
+
+	@Test
+	public void randomOperationsTest()
+	{
+		int slabSize = 1 << 12;
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(200, 4 * slabSize, slabSize, Serializers.BYTES);
+		Map<Integer, Integer> lengths = new HashMap<>();
+		Random random = new Random(42);
+		for (int i=0; i<20_000; i++)
+		{
+			int key = random.nextInt(300);
+			int operation = random.nextInt(3);
+			if (operation == 0)
+			{
+				// values of every size class, so evictions both reuse chunks and empty slabs
+				int length = random.nextInt(slabSize - SlabAllocator.HEADER_SIZE);
+				byte[] value = new byte[length];
+				Arrays.fill(value, (byte) key);
+				cache.put(key, value);
+				lengths.put(key, length);
+			}
+			else if (operation == 1)
+			{
+				byte[] value = cache.get(key);
+				if (value != null)
+				{
+					Assert.assertEquals(value.length, lengths.get(key).intValue());
+					for (byte b : value)
+					{
+						Assert.assertEquals(b, (byte) key);
+					}
+				}
+			}
+			else
+			{
+				cache.remove(key);
+			}
+			Assert.assertTrue(cache.size() <= 200);
+			Assert.assertTrue(cache.getAllocatedBytes() <= 4 * slabSize);
+		}
+		int count = 0;
+		for (int key=0; key<300; key++)
+		{
+			count += cache.containsKey(key) ? 1 : 0;
+		}
+		Assert.assertEquals(count, cache.size());
+	}
+
+	@Test(expectedExceptions=IllegalArgumentException.class)
+	public void oversizedValueTest()
+	{
+		OffHeapCache<Integer, byte[]> cache = new OffHeapCache<>(10, 1 << 16, 1 << 12, Serializers.BYTES);
+		cache.put(1, new byte[1 << 12]);
+	}
+}
@@ -0,0 +1,222 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PartitionedCacheTest
+{
+	private static final int NODE_COUNT = 3;
+
+	private List<PartitionedCache<String, String>> caches;
+
+	@BeforeMethod
+	public void startNodes() throws Exception
+	{
+		List<SocketTransport> transports = new ArrayList<>();
+		List<String> nodes = new ArrayList<>();
+		for (int i=0; i<NODE_COUNT; i++)
+		{
+			SocketTransport transport = SocketTransport.loopback();
+			transports.add(transport);
+			nodes.add(transport.getLocalNode());
+		}
+		caches = new ArrayList<>();
+		for (SocketTransport transport : transports)
+		{
+			PartitionedCache<String, String> cache = new PartitionedCache<>(transport, nodes, 1000,
+					Serializers.STRING, Serializers.STRING);
+			cache.start();
+			caches.add(cache);
+		}
+	}
+
+	@AfterMethod
+	public void stopNodes() throws Exception
+	{
+		for (PartitionedCache<String, String> cache : caches)
+		{
+			cache.close();
+		}
+	}
+
+	@Test
+	public void partitionTest() throws Exception
+	{
+		for (int i=0; i<300; i++)
+		{
+			caches.get(i % NODE_COUNT).put("key" + i, "value" + i);
+		}
+		int total = 0;
+		for (PartitionedCache<String, String> cache : caches)
+		{
+			// each entry is stored once, on its owner
+			Assert.assertTrue(cache.getLocalSize() > 0);
+			total += cache.getLocalSize();
+			for (int i=0; i<300; i++)
+			{
+				Assert.assertEquals(cache.get("key" + i), "value" + i);
+			}
+		}
+		Assert.assertEquals(total, 300);
+		Assert.assertEquals(caches.get(0).remove("key7"), "value7");
+		Assert.assertNull(caches.get(0).get("key7"));
+		// the other nodes drop the value once the invalidation arrives
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (caches.get(1).get("key7") != null && System.nanoTime() < deadline)
+		{
+			Thread.sleep(1);
+		}
+		Assert.assertNull(caches.get(1).get("key7"));
+	}
+
+	@Test
+	public void nearCacheInvalidationTest() throws Exception
+	{
+		PartitionedCache<String, String> owner = null;
+		PartitionedCache<String, String> reader = null;
+		PartitionedCache<String, String> writer = null;
+		String key = "shared";
+		for (PartitionedCache<String, String> cache : caches)
+		{
+			if (cache.getLocalNode().equals(cache.getOwner(key)))
+			{
+				owner = cache;
+			}
+			else if (reader == null)
+			{
+				reader = cache;
+			}
+			else
+			{
+				writer = cache;
+			}
+		}
+		owner.put(key, "1");
+		// a read racing the invalidation of the put does not fill the near cache, so read again
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		do
+		{
+			Assert.assertEquals(reader.get(key), "1");
+		}
+		while (reader.getNearCacheSize() == 0 && System.nanoTime() < deadline);
+		Assert.assertEquals(reader.getNearCacheSize(), 1);
+
+		// a write through another node must not leave the old value in the reader's near cache
+		writer.put(key, "2");
+		Assert.assertEquals(writer.get(key), "2");
+		awaitEmptyNearCache(reader);
+		Assert.assertEquals(reader.get(key), "2");
+		owner.remove(key);
+		awaitEmptyNearCache(reader);
+		Assert.assertNull(reader.get(key));
+	}
+
+	@Test
+	public void readAfterWriteTest() throws Exception
+	{
+		String key = "shared";
+		PartitionedCache<String, String> writer = null;
+		for (PartitionedCache<String, String> cache : caches)
+		{
+			if (!cache.getLocalNode().equals(cache.getOwner(key)))
+			{
+				writer = cache;
+			}
+		}
+		PartitionedCache<String, String> node = writer;
+		node.put(key, "value0");
+
+		// another thread of the same node keeps reading the key and filling the near cache
+		AtomicBoolean isDone = new AtomicBoolean();
+		Thread reader = new Thread(() -> {
+			while (!isDone.get())
+			{
+				node.get(key);
+			}
+		});
+		reader.start();
+		try
+		{
+			for (int i=1; i<500; i++)
+			{
+				node.put(key, "value" + i);
+				Assert.assertEquals(node.get(key), "value" + i);
+			}
+		}
+		finally
+		{
+			isDone.set(true);
+			reader.join();
+		}
+	}
+
+	@Test
+	public void unreachableNodeTest() throws Exception
+	{
+		String key = "shared";
+		PartitionedCache<String, String> owner = null;
+		PartitionedCache<String, String> other = null;
+		for (PartitionedCache<String, String> cache : caches)
+		{
+			if (cache.getLocalNode().equals(cache.getOwner(key)))
+			{
+				owner = cache;
+			}
+			else
+			{
+				other = cache;
+			}
+		}
+		other.close();
+		// the invalidations for the closed node are sent in the background
+		long start = System.nanoTime();
+		for (int i=0; i<10; i++)
+		{
+			owner.put(key, "value" + i);
+		}
+		Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(SocketTransport.DEFAULT_TIMEOUT / 1000));
+		Assert.assertEquals(owner.get(key), "value9");
+	}
+
+	@Test
+	public void ringRebalanceTest()
+	{
+		ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"));
+		Map<Integer, String> owners = new HashMap<>();
+		for (int i=0; i<10000; i++)
+		{
+			owners.put(i, ring.getOwner(i));
+		}
+		ring.removeNode("d");
+		for (int i=0; i<10000; i++)
+		{
+			// only the keys of the removed node move
+			if (!owners.get(i).equals("d"))
+			{
+				Assert.assertEquals(ring.getOwner(i), owners.get(i));
+			}
+		}
+		long countOfA = owners.values().stream().filter("a"::equals).count();
+		Assert.assertTrue(countOfA > 1500 && countOfA < 3500, "unbalanced: " + countOfA);
+	}
+
+	private static void awaitEmptyNearCache(PartitionedCache<?, ?> cache) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (cache.getNearCacheSize() > 0 && System.nanoTime() < deadline)
+		{
+			Thread.sleep(1);
+		}
+		Assert.assertEquals(cache.getNearCacheSize(), 0);
+	}
+}
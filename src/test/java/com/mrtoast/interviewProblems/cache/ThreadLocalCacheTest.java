@@ -0,0 +1,88 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ThreadLocalCacheTest
+{
+	@Test
+	public void invalidationTest() throws Exception
+	{
+		ThreadLocalCache<String, String> cache = new ThreadLocalCache<>(60_000, 100, 10, new ConcurrentStatsRecorder());
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		try
+		{
+			cache.put("key", "one");
+			// the other thread copies the value into its L1
+			Assert.assertEquals(other.submit(() -> cache.get("key")).get(), "one");
+			Assert.assertEquals(other.submit(() -> cache.get("key")).get(), "one");
+			Assert.assertEquals(cache.getLocalCacheCount(), 2);
+
+			cache.put("key", "two");
+			Assert.assertEquals(other.submit(() -> cache.get("key")).get(), "two");
+
+			cache.invalidate("key");
+			Assert.assertNull(other.submit(() -> cache.get("key")).get());
+
+			other.submit(() -> cache.put("other", "three")).get();
+			Assert.assertEquals(cache.get("other"), "three");
+			cache.invalidateAll();
+			Assert.assertNull(other.submit(() -> cache.get("other")).get());
+			Assert.assertEquals(cache.size(), 0);
+
+			// one L1 hit on the other thread, the rest read through to the L2
+			CacheStats stats = cache.getStats();
+			Assert.assertEquals(stats.getHitCount(), 4);
+			Assert.assertEquals(stats.getMissCount(), 2);
+		}
+		finally
+		{
+			other.shutdown();
+			cache.shutdown();
+		}
+	}
+
+	@Test
+	public void laggingThreadTest() throws Exception
+	{
+		ThreadLocalCache<Integer, String> cache = new ThreadLocalCache<>(60_000, 10_000, 10, StatsRecorder.DISABLED);
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		try
+		{
+			cache.put(1, "one");
+			Assert.assertEquals(other.submit(() -> cache.get(1)).get(), "one");
+			// more writes than the log holds, so the other thread's L1 is cleared rather than replayed
+			for (int i=0; i<ThreadLocalCache.INVALIDATION_LOG_SIZE + 1; i++)
+			{
+				cache.put(1, "value" + i);
+			}
+			Assert.assertEquals(other.submit(() -> cache.get(1)).get(), "value" + ThreadLocalCache.INVALIDATION_LOG_SIZE);
+		}
+		finally
+		{
+			other.shutdown();
+			cache.shutdown();
+		}
+	}
+
+	@Test
+	public void expirationTest() throws Exception
+	{
+		ThreadLocalCache<String, String> cache = new ThreadLocalCache<>(50, 100, 10, StatsRecorder.DISABLED);
+		try
+		{
+			cache.put("key", "value");
+			Assert.assertEquals(cache.get("key"), "value");
+			Thread.sleep(100);
+			// the L1 copy expires with the L2 entry
+			Assert.assertNull(cache.get("key"));
+		}
+		finally
+		{
+			cache.shutdown();
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ThreadPoolExecutorImplTest
+{
+	@Test
+	public void abortTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.abort());
+		try
+		{
+			Future<?> running = executor.submit(() -> await(release));
+			Future<?> queued = executor.submit(() -> await(release));
+			Future<?> rejected = executor.submit(() -> await(release));
+			Assert.assertTrue(rejected.isDone());
+			assertRejected(rejected);
+			try
+			{
+				executor.execute(() -> {});
+				Assert.fail("execute should throw");
+			}
+			catch (RejectedExecutionException e)
+			{
+				// expected
+			}
+			Assert.assertEquals(executor.getRejectedCount(), 2);
+
+			release.countDown();
+			running.get(10, TimeUnit.SECONDS);
+			queued.get(10, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void callerRunsTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.callerRuns());
+		try
+		{
+			executor.submit(() -> await(release));
+			executor.submit(() -> await(release));
+			Thread caller = Thread.currentThread();
+			Future<Boolean> overflow = executor.submit(() -> Thread.currentThread() == caller);
+			Assert.assertTrue(overflow.get());
+			Assert.assertEquals(executor.getRejectedCount(), 0);
+		}
+		finally
+		{
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void dropOldestTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.dropOldest());
+		try
+		{
+			executor.submit(() -> await(release));
+			Future<?> oldest = executor.submit(() -> await(release));
+			Future<String> newest = executor.submit(() -> "newest");
+			assertRejected(oldest);
+			Assert.assertEquals(executor.getRejectedCount(), 1);
+
+			release.countDown();
+			Assert.assertEquals(newest.get(10, TimeUnit.SECONDS), "newest");
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void blockTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.block(10, TimeUnit.MILLISECONDS));
+		try
+		{
+			executor.submit(() -> await(release));
+			executor.submit(() -> await(release));
+			assertRejected(executor.submit(() -> {}));
+			Assert.assertEquals(executor.getRejectedCount(), 1);
+		}
+		finally
+		{
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void adaptiveSheddingTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.adaptiveShedding(50, TimeUnit.MILLISECONDS));
+		try
+		{
+			executor.submit(() -> await(release));
+			Future<?> late = executor.submit(() -> await(release));
+			// the queued task has not waited long enough to be shed
+			assertRejected(executor.submit(() -> {}));
+
+			Thread.sleep(100);
+			Future<String> fresh = executor.submit(() -> "fresh");
+			assertRejected(late);
+			Assert.assertEquals(executor.getRejectedCount(), 2);
+
+			release.countDown();
+			Assert.assertEquals(fresh.get(10, TimeUnit.SECONDS), "fresh");
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void statsTest() throws Exception
+	{
+		ThreadPoolExecutorImpl executor = newExecutor(RejectionPolicies.block(10, TimeUnit.SECONDS));
+		try
+		{
+			ExecutorStats before = executor.getStats();
+			for (int i=0; i<10; i++)
+			{
+				executor.submit(() -> sleep(5));
+			}
+			executor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+
+			// the last task's afterExecute may still be running after its future completes
+			executor.shutdown();
+			Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			ExecutorStats after = executor.getStats();
+			Assert.assertEquals(after.getCompletedTaskCount(), 11);
+			Assert.assertEquals(after.getQueueWait().getCount(), 11);
+			Assert.assertEquals(after.getExecutionTime().getCount(), 11);
+			Assert.assertTrue(after.getExecutionTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(5));
+			// tasks queued behind sleeping tasks waited at least one sleep
+			Assert.assertTrue(after.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(5));
+			Assert.assertTrue(after.getThroughput(before) > 0);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void removeTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl(1, 1, 1, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(2), Thread::new, RejectionPolicies.abort());
+		try
+		{
+			executor.execute(() -> await(release));
+			AtomicBoolean hasRun = new AtomicBoolean();
+			Runnable queued = () -> hasRun.set(true);
+			executor.execute(queued);
+			Assert.assertEquals(executor.getQueue().size(), 1);
+
+			// the task is found although the queue holds it in a wrapper
+			Assert.assertTrue(executor.remove(queued));
+			Assert.assertEquals(executor.getQueue().size(), 0);
+			Assert.assertFalse(executor.remove(queued));
+			release.countDown();
+			executor.shutdown();
+			Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			Assert.assertFalse(hasRun.get());
+		}
+		finally
+		{
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void purgeTest() throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		ThreadPoolExecutorImpl executor = new ThreadPoolExecutorImpl(1, 1, 1, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(2), Thread::new, RejectionPolicies.abort());
+		try
+		{
+			executor.execute(() -> await(release));
+			Future<?> cancelled = executor.submit(() -> {});
+			Future<?> kept = executor.submit(() -> {});
+			cancelled.cancel(false);
+
+			executor.purge();
+			Assert.assertEquals(executor.getQueue().size(), 1);
+			release.countDown();
+			kept.get(10, TimeUnit.SECONDS);
+		}
+		finally
+		{
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return an executor with one thread and room for one queued task.
+	 */
+	private static ThreadPoolExecutorImpl newExecutor(RejectedExecutionHandler handler)
+	{
+		return new ThreadPoolExecutorImpl(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1),
+				Thread::new, handler);
+	}
+
+	private static void assertRejected(Future<?> future) throws InterruptedException
+	{
+		try
+		{
+			future.get();
+			Assert.fail("future should be rejected");
+		}
+		catch (ExecutionException e)
+		{
+			Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
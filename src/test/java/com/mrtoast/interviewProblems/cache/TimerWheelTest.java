@@ -0,0 +1,169 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class TimerWheelTest
+{
+	@DataProvider
+	public Object[][] delayData()
+	{
+		return new Object[][] {
+				{TimeUnit.MILLISECONDS.toMillis(5)},
+				{TimeUnit.MILLISECONDS.toMillis(500)},
+				{TimeUnit.SECONDS.toMillis(30)},
+				{TimeUnit.MINUTES.toMillis(30)},
+				{TimeUnit.HOURS.toMillis(30)},
+				{TimeUnit.DAYS.toMillis(30)},
+		};
+	}
+
+	@Test(dataProvider="delayData")
+	public void expireTest(long delay)
+	{
+		long startTime = System.currentTimeMillis();
+		TimerWheel<String> timerWheel = new TimerWheel<>(startTime);
+		ExpiringKey<String> key = new ExpiringKey<>("key", delay);
+		timerWheel.schedule(key);
+
+		List<String> expired = new ArrayList<>();
+		// step through time in increasingly large strides, as a periodic cleanup would
+		long time = startTime;
+		long stride = 1;
+		while (time < key.getExpiringTime() - 1)
+		{
+			time = Math.min(time + stride, key.getExpiringTime() - 1);
+			timerWheel.advance(time, k -> expired.add(k.getKey()));
+			stride = Math.max(1, (key.getExpiringTime() - time) / 3);
+		}
+		Assert.assertTrue(expired.isEmpty(), "expired early at " + time);
+
+		timerWheel.advance(key.getExpiringTime(), k -> expired.add(k.getKey()));
+		Assert.assertEquals(expired.size(), 1);
+		Assert.assertEquals(expired.get(0), "key");
+	}
+
+	@Test
+	public void rescheduleTest()
+	{
+		long startTime = System.currentTimeMillis();
+		TimerWheel<String> timerWheel = new TimerWheel<>(startTime);
+		ExpiringKey<String> key = new ExpiringKey<>("key", 1000);
+
+		// rescheduling the same key never adds a second entry to the wheel
+		for (int i=0; i<100; i++)
+		{
+			timerWheel.schedule(key);
+		}
+		List<String> expired = new ArrayList<>();
+		timerWheel.advance(key.getExpiringTime(), k -> expired.add(k.getKey()));
+		Assert.assertEquals(expired.size(), 1);
+	}
+
+	@Test
+	public void descheduleTest()
+	{
+		long startTime = System.currentTimeMillis();
+		TimerWheel<String> timerWheel = new TimerWheel<>(startTime);
+		ExpiringKey<String> first = new ExpiringKey<>("first", 100);
+		ExpiringKey<String> second = new ExpiringKey<>("second", 100);
+		timerWheel.schedule(first);
+		timerWheel.schedule(second);
+		timerWheel.deschedule(first);
+
+		List<String> expired = new ArrayList<>();
+		timerWheel.advance(startTime + 10_000, k -> expired.add(k.getKey()));
+		Assert.assertEquals(expired.size(), 1);
+		Assert.assertEquals(expired.get(0), "second");
+	}
+
+	@Test
+	public void budgetTest()
+	{
+		long startTime = System.currentTimeMillis();
+		TimerWheel<Integer> timerWheel = new TimerWheel<>(startTime);
+		for (int i=0; i<100; i++)
+		{
+			timerWheel.schedule(new ExpiringKey<>(i, 10 * i));
+		}
+
+		List<Integer> expired = new ArrayList<>();
+		long time = startTime + 10_000;
+		int advances = 0;
+		while (!timerWheel.advance(time, k -> expired.add(k.getKey()), 16))
+		{
+			advances++;
+			Assert.assertEquals(expired.size(), 16 * advances);
+		}
+		Assert.assertEquals(advances, 6);
+		Assert.assertEquals(expired.size(), 100);
+		Assert.assertEquals(new HashSet<>(expired).size(), 100);
+	}
+
+	@Test
+	public void cascadeBudgetTest()
+	{
+		long startTime = 1L << 20;
+		TimerWheel<Integer> timerWheel = new TimerWheel<>(startTime);
+		for (int i=0; i<100; i++)
+		{
+			ExpiringKey<Integer> key = new ExpiringKey<>(i, 0);
+			key.setExpiringTime(startTime + 5_000 + i);
+			timerWheel.schedule(key);
+		}
+
+		// cascading the keys down a level costs budget although none of them expire
+		List<Integer> expired = new ArrayList<>();
+		long time = startTime + 4_500;
+		int advances = 1;
+		while (!timerWheel.advance(time, k -> expired.add(k.getKey()), 16))
+		{
+			advances++;
+		}
+		Assert.assertTrue(expired.isEmpty());
+		Assert.assertEquals(advances, 7);
+
+		timerWheel.advance(startTime + 6_000, k -> expired.add(k.getKey()));
+		Assert.assertEquals(expired.size(), 100);
+		Assert.assertEquals(new HashSet<>(expired).size(), 100);
+	}
+
+	@Test
+	public void interleavedBudgetTest()
+	{
+		// aligned to a level 2 tick of about 65 seconds
+		long startTime = 1L << 30;
+		long expiringTime = startTime + 200_000;
+		TimerWheel<Integer> timerWheel = new TimerWheel<>(startTime);
+		for (int i=0; i<40; i++)
+		{
+			ExpiringKey<Integer> key = new ExpiringKey<>(i, 0);
+			key.setExpiringTime(expiringTime);
+			timerWheel.schedule(key);
+		}
+
+		// stop partway through the level 2 bucket holding the keys
+		List<Integer> expired = new ArrayList<>();
+		long time = startTime + 3 * (1L << 16);
+		Assert.assertFalse(timerWheel.advance(time, k -> expired.add(k.getKey()), 16));
+
+		// then run out of budget in level 0, which must not forget the level 2 bucket
+		for (int i=100; i<120; i++)
+		{
+			ExpiringKey<Integer> key = new ExpiringKey<>(i, 0);
+			key.setExpiringTime(time + 1);
+			timerWheel.schedule(key);
+		}
+		Assert.assertFalse(timerWheel.advance(time + 10, k -> expired.add(k.getKey()), 5));
+
+		timerWheel.advance(expiringTime + 1_000, k -> expired.add(k.getKey()));
+		Assert.assertEquals(expired.size(), 60);
+		Assert.assertEquals(new HashSet<>(expired).size(), 60);
+	}
+}
@@ -0,0 +1,75 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TraceSimulatorTest
+{
+	@Test
+	public void readTest() throws Exception
+	{
+		String text = "1 100\n\n  -42,x\nuser:7\r\n1";
+		long[] keys = new long[10];
+		try (TraceReader trace = new TraceReader(
+				new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), TraceReader.Format.TEXT))
+		{
+			Assert.assertEquals(trace.read(keys), 4);
+			Assert.assertEquals(trace.read(keys), -1);
+		}
+		Assert.assertEquals(keys[0], 1);
+		Assert.assertEquals(keys[1], -42);
+		Assert.assertEquals(keys[3], 1);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes))
+		{
+			out.writeLong(Long.MIN_VALUE);
+			out.writeLong(5);
+		}
+		try (TraceReader trace = new TraceReader(
+				new ByteArrayInputStream(bytes.toByteArray()), TraceReader.Format.BINARY))
+		{
+			Assert.assertEquals(trace.read(keys), 2);
+			Assert.assertEquals(trace.read(keys), -1);
+		}
+		Assert.assertEquals(keys[0], Long.MIN_VALUE);
+		Assert.assertEquals(keys[1], 5);
+	}
+
+	@Test
+	public void hitRateTest() throws Exception
+	{
+		// a loop over 100 keys, which LRU only hits once all of them fit
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes))
+		{
+			for (int i=0; i<100000; i++)
+			{
+				out.writeLong(i % 100);
+			}
+		}
+		TraceSimulator simulator = new TraceSimulator(50, 100);
+		simulator.addPolicy("lru", SimulatedPolicies.lru());
+		simulator.addPolicy("long-key-lru", SimulatedPolicies.longKeyLru());
+		List<TraceSimulator.Result> results;
+		try (TraceReader trace = new TraceReader(
+				new ByteArrayInputStream(bytes.toByteArray()), TraceReader.Format.BINARY))
+		{
+			results = simulator.run(trace);
+		}
+		Assert.assertEquals(results.size(), 4);
+		for (TraceSimulator.Result result : results)
+		{
+			Assert.assertEquals(result.getEventCount(), 100000);
+			double expected = (result.getMaxSize() == 100) ? 0.999 : 0;
+			Assert.assertEquals(result.getHitRate(), expected, 0.0001, result.toString());
+			Assert.assertTrue(result.getThroughput() > 0);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class VirtualThreadExecutorTest
+{
+	@Test
+	public void maxConcurrencyTest() throws Exception
+	{
+		VirtualThreadExecutor executor = new VirtualThreadExecutor(4);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		try
+		{
+			List<Future<?>> results = new ArrayList<>();
+			for (int i=0; i<100; i++)
+			{
+				results.add(executor.submit(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					sleep(5);
+					running.decrementAndGet();
+				}));
+			}
+			for (Future<?> result : results)
+			{
+				result.get(10, TimeUnit.SECONDS);
+			}
+			Assert.assertTrue(maxRunning.get() <= 4, "max running " + maxRunning.get());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertEquals(executor.getActiveCount(), 0);
+	}
+
+	@Test
+	public void shutdownNowTest() throws Exception
+	{
+		VirtualThreadExecutor executor = new VirtualThreadExecutor(1);
+		CountDownLatch started = new CountDownLatch(1);
+		Future<?> running = executor.submit(() -> {
+			started.countDown();
+			sleep(10_000);
+		});
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		List<Future<?>> waiting = new ArrayList<>();
+		for (int i=0; i<3; i++)
+		{
+			waiting.add(executor.submit(() -> {}));
+		}
+		// the tasks as submitted are returned, not the executor's wrappers
+		List<Runnable> tasks = executor.shutdownNow();
+		Assert.assertEquals(tasks.size(), 3);
+		Assert.assertTrue(tasks.containsAll(waiting));
+		Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertTrue(running.isDone());
+	}
+
+	@Test
+	public void threadLocalCacheTest() throws Exception
+	{
+		ThreadLocalCache<String, String> cache = new ThreadLocalCache<>(60_000, 100, 10,
+				StatsRecorder.DISABLED, ExecutionMode.VIRTUAL_THREADS);
+		try
+		{
+			LoadingCache<String, String> loadingCache = cache.newLoadingCache(60_000, 100);
+			Assert.assertEquals(loadingCache.getAsync("key", String::toUpperCase).get(10, TimeUnit.SECONDS), "KEY");
+		}
+		finally
+		{
+			cache.shutdown();
+		}
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
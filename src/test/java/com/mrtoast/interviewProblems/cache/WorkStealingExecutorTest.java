@@ -0,0 +1,125 @@
+package com.mrtoast.interviewProblems.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class WorkStealingExecutorTest
+{
+	@Test
+	public void fanOutTest() throws Exception
+	{
+		WorkStealingExecutor executor = new WorkStealingExecutor(4);
+		try
+		{
+			int subtasks = 10_000;
+			CountDownLatch done = new CountDownLatch(subtasks);
+			AtomicInteger sum = new AtomicInteger();
+			executor.execute(() -> {
+				for (int i=0; i<subtasks; i++)
+				{
+					int value = i;
+					// submitted from a worker, so pushed onto its own deque
+					executor.execute(() -> {
+						sum.addAndGet(value);
+						done.countDown();
+					});
+				}
+			});
+			Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+			Assert.assertEquals(sum.get(), subtasks * (subtasks - 1) / 2);
+			Assert.assertEquals(executor.submit(() -> "result").get(10, TimeUnit.SECONDS), "result");
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void exceptionTest() throws Exception
+	{
+		LinkedBlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+		WorkStealingExecutor executor = new WorkStealingExecutor(1, (thread, t) -> failures.add(t));
+		try
+		{
+			executor.execute(() -> {
+				// forked onto the worker's own deque
+				executor.execute(() -> {
+					throw new IllegalStateException("forked");
+				});
+			});
+			executor.execute(() -> {
+				throw new IllegalStateException("submitted");
+			});
+			Set<String> messages = new HashSet<>();
+			for (int i=0; i<2; i++)
+			{
+				Throwable failure = failures.poll(10, TimeUnit.SECONDS);
+				Assert.assertNotNull(failure);
+				messages.add(failure.getMessage());
+			}
+			Assert.assertEquals(messages, new HashSet<>(Arrays.asList("forked", "submitted")));
+			// the worker survives its failed tasks
+			Assert.assertEquals(executor.submit(() -> "result").get(10, TimeUnit.SECONDS), "result");
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void shutdownNowTest() throws Exception
+	{
+		WorkStealingExecutor executor = new WorkStealingExecutor(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			try
+			{
+				Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+			}
+			catch (InterruptedException e)
+			{
+				interrupted.countDown();
+			}
+		});
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		AtomicInteger runs = new AtomicInteger();
+		List<Runnable> queued = new ArrayList<>();
+		for (int i=0; i<5; i++)
+		{
+			Runnable task = runs::incrementAndGet;
+			queued.add(task);
+			executor.execute(task);
+		}
+		// the queued tasks are returned as they were passed to execute
+		List<Runnable> returned = executor.shutdownNow();
+		Assert.assertEquals(new HashSet<>(returned), new HashSet<>(queued));
+		Assert.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+		Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertEquals(runs.get(), 0);
+	}
+
+	@Test(expectedExceptions=RejectedExecutionException.class)
+	public void shutdownTest()
+	{
+		WorkStealingExecutor executor = new WorkStealingExecutor(1);
+		executor.shutdown();
+		executor.execute(() -> {});
+	}
+}